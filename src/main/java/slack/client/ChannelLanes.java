@@ -0,0 +1,116 @@
+package slack.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Shards deliveries by channel onto single-writer lanes
+ * Each channel has its own FIFO lane with at most one delivery in progress, so messages to a channel
+ * arrive in the order they were sent, while lanes of different channels run fully in parallel
+ * Severity never reorders a lane; it decides which lane's head gets a free in-flight slot in {@link SendDispatcher}
+ * A lane only waits asynchronously (rate limits, HTTP, retries), so a slow channel holds no thread
+ * and never delays other channels; lanes are created on demand and retired when they drain
+ */
+class ChannelLanes {
+    private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Consumer<PendingDelivery> starter;
+
+    /**
+     * Creates lanes that hand the head of each lane to the given starter
+     */
+    ChannelLanes(Consumer<PendingDelivery> starter) {
+        this.starter = starter;
+    }
+
+    /**
+     * Appends a delivery to its channel's lane, starting it at once if the lane is idle
+     */
+    void enqueue(PendingDelivery delivery) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(delivery.channelId, Lane::new);
+            if (lane.offer(delivery)) {
+                return;
+            }
+            // The lane retired between lookup and offer; it is being removed, so look again
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Returns the number of channels with queued or in-progress deliveries
+     */
+    int activeLanes() {
+        return lanes.size();
+    }
+
+    /**
+     * Returns the number of deliveries queued or in progress for a channel
+     */
+    int pending(String channelId) {
+        Lane lane = lanes.get(channelId);
+        return lane != null ? Math.max(0, lane.pending.get()) : 0;
+    }
+
+    private final class Lane {
+        private final String channelId;
+        private final Queue<PendingDelivery> queue = new ConcurrentLinkedQueue<>();
+        // Deliveries offered but not finished; -1 once the lane is retired
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger advanceRequests = new AtomicInteger();
+
+        Lane(String channelId) {
+            this.channelId = channelId;
+        }
+
+        boolean offer(PendingDelivery delivery) {
+            int before;
+            do {
+                before = pending.get();
+                if (before < 0) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(before, before + 1));
+
+            queue.add(delivery);
+            if (before == 0) {
+                advance();
+            }
+            return true;
+        }
+
+        /**
+         * Starts the next delivery; re-entrant calls are folded into the running loop
+         * so a lane of synchronously completing deliveries never grows the stack
+         */
+        private void advance() {
+            if (advanceRequests.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                startHead();
+            } while (advanceRequests.decrementAndGet() != 0);
+        }
+
+        private void startHead() {
+            PendingDelivery head;
+            while ((head = queue.poll()) == null) {
+                // Counted by offer() but not yet added to the queue
+                Thread.onSpinWait();
+            }
+            head.result.whenComplete((response, error) -> onHeadDone());
+            starter.accept(head);
+        }
+
+        private void onHeadDone() {
+            if (pending.decrementAndGet() > 0) {
+                advance();
+            } else if (pending.compareAndSet(0, -1)) {
+                lanes.remove(channelId, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package slack.client;
+
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers low-importance notifications per channel and sends them as one compact digest
+ * A channel's digest goes out when it holds the configured number of messages or when the
+ * interval since its first message has passed, whichever comes first
+ * CRITICAL and HIGH messages, and messages without an explicit severity, are never buffered
+ */
+class DigestBuffer {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int MAX_LINE_LENGTH = 150;
+    // Slack rejects section texts above 3000 characters
+    private static final int MAX_SECTION_LENGTH = 2900;
+
+    private final int maxMessages;
+    private final long intervalMs;
+    private final Sink sink;
+    private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a buffer that hands finished digests to the given sink
+     */
+    DigestBuffer(int maxMessages, long intervalMs, Sink sink) {
+        this.maxMessages = maxMessages;
+        this.intervalMs = intervalMs;
+        this.sink = sink;
+    }
+
+    /**
+     * Returns true if the message is unimportant enough to wait for a digest
+     * Only messages explicitly marked MEDIUM or LOW qualify; untagged ones merely default to MEDIUM
+     * Messages tied to a thread by a correlation key, or that must arrive by a deadline, are never merged
+     */
+    boolean accepts(SlackMessage message) {
+        return message.isSeveritySet() && message.getSeverity().isLowerThan(Severity.HIGH)
+                && message.getCorrelationKey() == null
+                && message.getTtlMs() == 0 && message.getDeadline() == null;
+    }
+
+    /**
+     * Adds a message to its channel's digest
+     * The future completes with the response of the digest that carries the message
+     * @param onUndelivered run if the message provably never reaches Slack, may be null
+     */
+    CompletableFuture<SlackResponse> add(SlackMessage message, String channelId, Runnable onUndelivered) {
+        Entry entry = new Entry(message, LocalTime.now(), onUndelivered);
+        while (true) {
+            Batch batch = batches.computeIfAbsent(channelId, Batch::new);
+            List<Entry> full;
+            synchronized (batch) {
+                if (batch.closed) {
+                    batches.remove(channelId, batch);
+                    continue;
+                }
+                batch.entries.add(entry);
+                if (batch.entries.size() == 1) {
+                    // The timer runs on the shared scheduler, which must never wait for room in the queue
+                    batch.timer = SlackExecutors.scheduler().schedule(() -> flush(batch, false), intervalMs,
+                            TimeUnit.MILLISECONDS);
+                }
+                if (batch.entries.size() < maxMessages) {
+                    return entry.result;
+                }
+                full = batch.close();
+            }
+            batches.remove(channelId, batch);
+            send(channelId, full, true);
+            return entry.result;
+        }
+    }
+
+    /**
+     * Sends every channel's digest now, without waiting for it to fill up or for its interval
+     */
+    void flushAll() {
+        for (Batch batch : batches.values()) {
+            flush(batch, true);
+        }
+    }
+
+    private void flush(Batch batch, boolean mayWait) {
+        List<Entry> entries;
+        synchronized (batch) {
+            if (batch.closed) {
+                return;
+            }
+            entries = batch.close();
+        }
+        batches.remove(batch.channelId, batch);
+        send(batch.channelId, entries, mayWait);
+    }
+
+    private void send(String channelId, List<Entry> entries, boolean mayWait) {
+        List<Entry> live = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            // Skip messages whose callers cancelled them while they waited
+            if (!entry.result.isDone()) {
+                live.add(entry);
+            } else {
+                entry.undelivered();
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        // A digest of one would only be a worse copy of the message itself
+        SlackMessage message = live.size() == 1 ? live.get(0).message : buildDigest(live);
+        Runnable onUndelivered = () -> live.forEach(Entry::undelivered);
+        sink.send(message, channelId, mayWait, onUndelivered).whenComplete((response, error) -> {
+            for (Entry entry : live) {
+                if (error != null) {
+                    entry.result.completeExceptionally(error);
+                } else {
+                    entry.result.complete(response);
+                }
+            }
+        });
+    }
+
+    private static SlackMessage buildDigest(List<Entry> entries) {
+        Severity highest = Severity.LOW;
+        Map<Severity, Integer> counts = new EnumMap<>(Severity.class);
+        for (Entry entry : entries) {
+            Severity severity = entry.message.getSeverity();
+            counts.merge(severity, 1, Integer::sum);
+            if (highest.isLowerThan(severity)) {
+                highest = severity;
+            }
+        }
+
+        SlackMessageBuilder builder = SlackMessageBuilder.create()
+                .severity(highest)
+                .addHeader("📬 Digest - " + entries.size() + " notifications");
+        StringBuilder section = new StringBuilder();
+        for (Entry entry : entries) {
+            String line = "• " + iconOf(entry.message.getSeverity()) + " *" + entry.receivedAt.format(TIME_FORMAT)
+                    + "* " + summaryOf(entry.message);
+            if (section.length() > 0 && section.length() + line.length() + 1 > MAX_SECTION_LENGTH) {
+                builder.addSection(section.toString());
+                section.setLength(0);
+            }
+            if (section.length() > 0) {
+                section.append('\n');
+            }
+            section.append(line);
+        }
+        builder.addSection(section.toString());
+
+        List<String> context = new ArrayList<>();
+        counts.forEach((severity, count) -> context.add(iconOf(severity) + " " + severity + ": " + count));
+        return builder.addContext(context.toArray(new String[0])).build();
+    }
+
+    /**
+     * Returns the first line of text a reader would see: the header, else the first section
+     */
+    private static String summaryOf(SlackMessage message) {
+        String summary = null;
+        if (message.getBlocks() != null) {
+            for (SlackMessage.Block block : message.getBlocks()) {
+                if (block.getText() != null && block.getText().getText() != null) {
+                    summary = block.getText().getText();
+                    break;
+                }
+            }
+        }
+        if (summary == null) {
+            summary = message.getText() != null ? message.getText() : "(no text)";
+        }
+        summary = summary.replace('\n', ' ').trim();
+        return summary.length() > MAX_LINE_LENGTH ? summary.substring(0, MAX_LINE_LENGTH - 1) + "…" : summary;
+    }
+
+    private static String iconOf(Severity severity) {
+        switch (severity) {
+            case CRITICAL: return "🚨";
+            case HIGH: return "⚠️";
+            case MEDIUM: return "🔶";
+            default: return "ℹ️";
+        }
+    }
+
+    /**
+     * Receives finished digests for delivery
+     */
+    interface Sink {
+        /**
+         * @param mayWait false when called from the shared scheduler, which must not block on a full queue
+         * @param onUndelivered to run if the digest provably never reaches Slack
+         */
+        CompletableFuture<SlackResponse> send(SlackMessage message, String channelId, boolean mayWait,
+                                              Runnable onUndelivered);
+    }
+
+    private static final class Entry {
+        final SlackMessage message;
+        final LocalTime receivedAt;
+        final Runnable onUndelivered;
+        final CompletableFuture<SlackResponse> result = new CompletableFuture<>();
+
+        Entry(SlackMessage message, LocalTime receivedAt, Runnable onUndelivered) {
+            this.message = message;
+            this.receivedAt = receivedAt;
+            this.onUndelivered = onUndelivered;
+        }
+
+        void undelivered() {
+            if (onUndelivered != null) {
+                onUndelivered.run();
+            }
+        }
+    }
+
+    private static final class Batch {
+        final String channelId;
+        final List<Entry> entries = new ArrayList<>();
+        Future<?> timer;
+        boolean closed;
+
+        Batch(String channelId) {
+            this.channelId = channelId;
+        }
+
+        List<Entry> close() {
+            closed = true;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            return entries;
+        }
+    }
+}
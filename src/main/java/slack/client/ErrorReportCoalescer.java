@@ -0,0 +1,165 @@
+package slack.client;
+
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.model.SlackResponse;
+import slack.template.ErrorReportTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges repeated error reports into a few messages
+ * Occurrences are grouped by system name, error type and severity; a missing severity counts as MEDIUM
+ * The first occurrence of a group is reported at once; later ones are accumulated and sent as one
+ * report per window with the merged count, first and last seen times and the union of affected services
+ * Windows are fixed, not sliding: they start at the group's first occurrence and follow back to back,
+ * so a group reports at most once per window no matter when within it the occurrences arrive
+ * A group closes after a window passes without new occurrences
+ */
+public class ErrorReportCoalescer {
+    private final SlackClient client;
+    private final String channelId;
+    private final long windowMs;
+    private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a coalescer sending to the client's default channel
+     */
+    public ErrorReportCoalescer(SlackClient client, long windowMs) {
+        this(client, null, windowMs);
+    }
+
+    /**
+     * Creates a coalescer sending to a specific channel
+     */
+    public ErrorReportCoalescer(SlackClient client, String channelId, long windowMs) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("Coalescing window must be positive");
+        }
+        this.client = client;
+        this.channelId = channelId;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Records an error occurrence, taking the same arguments as {@link ErrorReportTemplate#createReport}
+     * The future completes when the report carrying this occurrence has been sent
+     */
+    public CompletableFuture<SlackResponse> report(String systemName, String errorType, String errorMessage,
+                                                   int errorCount, String severity, String affectedServices) {
+        String level = severity != null && !severity.isBlank() ? severity.trim() : Severity.MEDIUM.name();
+        String key = systemName + '\u0000' + errorType + '\u0000' + level.toUpperCase(Locale.ROOT);
+        while (true) {
+            Group group = groups.computeIfAbsent(key, k -> new Group(k, systemName, errorType, level));
+            SlackMessage leadingReport;
+            synchronized (group) {
+                if (group.closed) {
+                    groups.remove(key, group);
+                    continue;
+                }
+                boolean leading = group.firstSeen == null;
+                group.record(errorMessage, Math.max(1, errorCount), affectedServices);
+                if (!leading) {
+                    return group.pendingResult;
+                }
+                leadingReport = group.drain();
+            }
+            SlackExecutors.scheduler().schedule(() -> flush(group), windowMs, TimeUnit.MILLISECONDS);
+            return send(leadingReport, true);
+        }
+    }
+
+    /**
+     * Returns the number of error groups currently being merged
+     */
+    public int getOpenGroups() {
+        return groups.size();
+    }
+
+    private void flush(Group group) {
+        SlackMessage report;
+        CompletableFuture<SlackResponse> result;
+        synchronized (group) {
+            if (group.pending == 0) {
+                group.closed = true;
+                groups.remove(group.key, group);
+                return;
+            }
+            result = group.pendingResult;
+            report = group.drain();
+        }
+        // Runs on the shared scheduler, so it must not wait for room in a full queue
+        send(report, false).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(response);
+            }
+        });
+        SlackExecutors.scheduler().schedule(() -> flush(group), windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<SlackResponse> send(SlackMessage report, boolean mayWait) {
+        return client.sendMessageAsync(report, channelId != null ? channelId : client.defaultChannelId(), mayWait);
+    }
+
+    /**
+     * Occurrences of one error; guarded by its own monitor
+     */
+    private static final class Group {
+        final String key;
+        final String systemName;
+        final String errorType;
+        final String severity;
+        final Set<String> affectedServices = new LinkedHashSet<>();
+        long total;
+        long pending;
+        String latestMessage;
+        LocalDateTime firstSeen;
+        LocalDateTime lastSeen;
+        CompletableFuture<SlackResponse> pendingResult = new CompletableFuture<>();
+        boolean closed;
+
+        Group(String key, String systemName, String errorType, String severity) {
+            this.key = key;
+            this.systemName = systemName;
+            this.errorType = errorType;
+            this.severity = severity;
+        }
+
+        void record(String errorMessage, int errorCount, String services) {
+            LocalDateTime now = LocalDateTime.now();
+            if (firstSeen == null) {
+                firstSeen = now;
+            }
+            lastSeen = now;
+            latestMessage = errorMessage;
+            total += errorCount;
+            pending += errorCount;
+            if (services != null) {
+                for (String service : services.split(",")) {
+                    if (!service.isBlank()) {
+                        affectedServices.add(service.trim());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Builds the report for everything recorded so far and starts a new pending batch
+         */
+        SlackMessage drain() {
+            pending = 0;
+            pendingResult = new CompletableFuture<>();
+            return ErrorReportTemplate.createCoalescedReport(systemName, errorType, latestMessage, total, severity,
+                    String.join(", ", affectedServices), firstSeen, lastSeen);
+        }
+    }
+}
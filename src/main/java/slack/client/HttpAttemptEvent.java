@@ -0,0 +1,54 @@
+package slack.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one HTTP attempt, from handing the request to the transport until its response is handled
+ */
+@Name("slack.HttpAttempt")
+@Label("Slack HTTP Attempt")
+@Category("Slack")
+@Description("One request to the Slack API or an incoming webhook")
+@StackTrace(false)
+class HttpAttemptEvent extends jdk.jfr.Event {
+    @Label("Channel")
+    String channel;
+
+    @Label("Template Type")
+    String templateType;
+
+    @Label("Method")
+    String method;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadBytes;
+
+    @Label("Status Code")
+    @Description("HTTP status, 0 when no response arrived")
+    int statusCode;
+
+    @Label("Outcome")
+    @Description("ok, or the Slack error code or failure kind")
+    String outcome;
+
+    /**
+     * Returns a started event, or null when the event is not being recorded
+     */
+    static HttpAttemptEvent start() {
+        HttpAttemptEvent event = new HttpAttemptEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
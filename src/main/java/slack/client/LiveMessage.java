@@ -0,0 +1,165 @@
+package slack.client;
+
+import slack.exception.SlackException;
+import slack.message.SlackMessage;
+import slack.model.SlackResponse;
+import slack.template.MessageTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A posted message that is edited in place as the operation it reports on progresses
+ * Returned by {@link SlackClient#sendLiveMessage}; later states are applied through chat.update
+ * At most one update per message is in flight and updates are spaced by the configured interval;
+ * states arriving in between replace each other, so only the latest one is sent
+ */
+public class LiveMessage {
+    private final SlackClient client;
+    private final long minIntervalNanos;
+    private final CompletableFuture<SlackResponse> posted;
+    private volatile String channelId;
+    private volatile String ts;
+
+    // Guarded by this
+    private SlackMessage pendingState;
+    private CompletableFuture<SlackResponse> pendingResult;
+    private boolean updating;
+    private long lastUpdateAt;
+
+    LiveMessage(SlackClient client, String channelId, long minIntervalMs,
+                CompletableFuture<SlackResponse> firstPost) {
+        this.client = client;
+        this.channelId = channelId;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMs);
+        this.posted = firstPost.thenApply(response -> {
+            // chat.update needs the channel ID Slack resolved, not a channel name
+            if (response.getChannel() != null) {
+                this.channelId = response.getChannel();
+            }
+            this.ts = response.getTs();
+            return response;
+        });
+        this.lastUpdateAt = System.nanoTime() - minIntervalNanos;
+    }
+
+    /**
+     * Replaces the message content with a new state
+     * The future completes with the response of the update that carried this state or a newer one,
+     * and fails if the first post failed
+     */
+    public CompletableFuture<SlackResponse> update(SlackMessage state) {
+        if (state == null) {
+            return CompletableFuture.failedFuture(new SlackException("Message cannot be null"));
+        }
+        CompletableFuture<SlackResponse> result;
+        boolean start;
+        synchronized (this) {
+            pendingState = state;
+            if (pendingResult == null) {
+                pendingResult = new CompletableFuture<>();
+            }
+            result = pendingResult;
+            start = !updating;
+            updating = true;
+        }
+        if (start) {
+            posted.whenComplete((response, error) -> scheduleNext());
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the message content with a state built from a template
+     */
+    public CompletableFuture<SlackResponse> update(MessageTemplate template) {
+        return update(SlackClient.render(template));
+    }
+
+    /**
+     * Returns a future completing with the response of the first post
+     */
+    public CompletableFuture<SlackResponse> posted() {
+        return posted;
+    }
+
+    /**
+     * Returns the channel the message was posted to
+     */
+    public String getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * Returns the message timestamp, or null until the first post has completed
+     */
+    public String getTs() {
+        return ts;
+    }
+
+    private void scheduleNext() {
+        if (posted.isCompletedExceptionally() || ts == null) {
+            // Not posted, or posted through a webhook that returns no ts
+            failPending();
+            return;
+        }
+        long delayNanos;
+        synchronized (this) {
+            if (pendingState == null) {
+                updating = false;
+                return;
+            }
+            delayNanos = lastUpdateAt + minIntervalNanos - System.nanoTime();
+        }
+        if (delayNanos > 0) {
+            SlackExecutors.scheduler().schedule(this::sendLatest, delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            sendLatest();
+        }
+    }
+
+    private void sendLatest() {
+        SlackMessage state;
+        CompletableFuture<SlackResponse> result;
+        synchronized (this) {
+            state = pendingState;
+            result = pendingResult;
+            pendingState = null;
+            pendingResult = null;
+            lastUpdateAt = System.nanoTime();
+        }
+        if (result.isDone()) {
+            // Cancelled by every caller waiting on it
+            scheduleNext();
+            return;
+        }
+        client.updateMessage(state, channelId, ts).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(response);
+            }
+            scheduleNext();
+        });
+    }
+
+    private void failPending() {
+        CompletableFuture<SlackResponse> result;
+        synchronized (this) {
+            result = pendingResult;
+            pendingState = null;
+            pendingResult = null;
+            updating = false;
+        }
+        if (result != null) {
+            Throwable cause = posted.handle((response, error) -> error).join();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            result.completeExceptionally(cause != null
+                    ? new SlackException("Live message was never posted", cause)
+                    : new SlackException("Live message has no ts to update"));
+        }
+    }
+}
@@ -0,0 +1,645 @@
+package slack.client;
+
+import slack.config.OverflowPolicy;
+import slack.exception.SlackDeadlineExceededException;
+import slack.exception.SlackQueueFullException;
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Bounded queue between callers and the delivery pipeline
+ * Caps the messages accepted but not yet delivered, by count and by estimated payload bytes
+ * When full, the configured {@link OverflowPolicy} decides between waiting, rejecting,
+ * dropping an unsent message or folding the new one into a per-channel summary
+ * Before it is full, a filling queue sheds new messages given a low severity explicitly, LOW first and
+ * HIGH last, so the remaining room is kept for the important ones; CRITICAL and untagged messages are never
+ * shed, and once the queue is full only the overflow policy decides
+ * Messages whose delivery deadline passes while they wait are expired without ever being sent
+ * Accounting is lock-free; the lock is only taken by senders waiting under the BLOCK policy,
+ * which internal senders running on the shared scheduler never do
+ */
+class OutboundQueue {
+    private static final Logger LOGGER = Logger.getLogger(OutboundQueue.class.getName());
+    private static final int MESSAGE_OVERHEAD_BYTES = 128;
+    private static final int BLOCK_OVERHEAD_BYTES = 64;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+    // Finished deliveries left linked behind a slow one before they are swept out
+    private static final int MIN_SWEEP_INTERVAL = 64;
+    // Distinct messages listed in a coalesced summary; the rest are only counted
+    private static final int MAX_SUMMARY_LINES = 10;
+    private static final int MAX_TITLE_LENGTH = 80;
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final OverflowPolicy policy;
+    private final long offerTimeoutNanos;
+    // Fill ratio from which new messages of each severity are shed, indexed by ordinal
+    private final double[] shedFillBySeverity;
+    private final Consumer<PendingDelivery> sink;
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<QueuedDeliveries> queuedBySeverity = new ArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final ConcurrentMap<String, CoalescedSummary> summaries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger blockedSenders = new AtomicInteger();
+
+    /**
+     * Creates a queue that passes accepted deliveries on to the given sink
+     *
+     * @param sheddingThreshold fill ratio from which LOW messages are shed, 0 to never shed
+     */
+    OutboundQueue(int maxMessages, long maxBytes, OverflowPolicy policy, long offerTimeoutMs,
+                  double sheddingThreshold, Consumer<PendingDelivery> sink) {
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.policy = policy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.shedFillBySeverity = shedFills(sheddingThreshold);
+        this.sink = sink;
+        for (int i = 0; i < Severity.values().length; i++) {
+            queuedBySeverity.add(new QueuedDeliveries());
+        }
+    }
+
+    /**
+     * Accepts a delivery and hands it to the sink, or applies the overflow policy when full
+     * A delivery that is not accepted has its result completed by the policy
+     *
+     * @param mayWait false for callers that must never block, such as tasks on the shared scheduler;
+     *                under BLOCK a full queue then rejects the delivery at once instead of waiting for room
+     */
+    void offer(PendingDelivery delivery, boolean mayWait) {
+        if (shouldShed(delivery)) {
+            shed(delivery);
+            return;
+        }
+        long size = sizeOf(delivery);
+        if (reserve(size) || makeRoom(delivery, size, mayWait)) {
+            accept(delivery, size);
+        }
+    }
+
+    /**
+     * Accepts a delivery recovered from the spool regardless of the limits
+     * Recovered messages are already durable, so they are never dropped or rejected
+     */
+    void restore(PendingDelivery delivery) {
+        long size = sizeOf(delivery);
+        depth.incrementAndGet();
+        bytes.addAndGet(size);
+        accept(delivery, size);
+    }
+
+    /**
+     * Returns a snapshot of the queue's depth and drop counters
+     */
+    QueueStats stats() {
+        return new QueueStats(depth.get(), bytes.get(), dropped.sum(), rejected.sum(), coalesced.sum(),
+                expired.sum(), shed.sum());
+    }
+
+    /**
+     * Returns the deliveries accepted and not yet finished, most important first
+     */
+    List<PendingDelivery> outstanding() {
+        List<PendingDelivery> outstanding = new ArrayList<>();
+        for (QueuedDeliveries queued : queuedBySeverity) {
+            for (PendingDelivery delivery : queued.all) {
+                if (!delivery.result.isDone()) {
+                    outstanding.add(delivery);
+                }
+            }
+        }
+        return outstanding;
+    }
+
+    /**
+     * Fails the messages waiting in coalesced summaries that never found room, returning how many there were
+     */
+    int abandonSummaries(Throwable failure) {
+        int abandoned = 0;
+        for (CoalescedSummary summary : summaries.values()) {
+            if (summaries.remove(summary.channelId, summary) && summary.close()) {
+                abandoned += summary.size();
+                summary.completeAll(null, failure);
+            }
+        }
+        return abandoned;
+    }
+
+    /**
+     * Gives up on a delivery whose deadline has passed or cannot be met, counting it as expired
+     */
+    void expire(PendingDelivery delivery, String reason) {
+        // Counted first, so the count already includes the message when its caller sees it fail
+        expired.increment();
+        if (!delivery.result.completeExceptionally(new SlackDeadlineExceededException(reason, delivery.lastFailure))) {
+            expired.decrement();
+            return;
+        }
+        LOGGER.warning(reason + ", giving up on message to " + delivery.channelId);
+        delivery.cancel();
+    }
+
+    /**
+     * Returns how full the queue is, by count or by bytes, whichever is closer to its limit
+     */
+    private double fill() {
+        return Math.max((double) depth.get() / maxMessages, (double) bytes.get() / maxBytes);
+    }
+
+    /**
+     * Returns true if a delivery tagged with a low severity should be turned away to keep room
+     * A full queue is left to the overflow policy, so shedding never overrides it
+     */
+    private boolean shouldShed(PendingDelivery delivery) {
+        if (!delivery.message.isSeveritySet()) {
+            return false;
+        }
+        double fill = fill();
+        return fill < 1 && fill >= shedFillBySeverity[delivery.message.getSeverity().ordinal()];
+    }
+
+    private void shed(PendingDelivery delivery) {
+        shed.increment();
+        LOGGER.warning("Outbound queue " + Math.round(fill() * 100) + "% full, shedding "
+                + delivery.message.getSeverity() + " message to " + delivery.channelId);
+        delivery.result.completeExceptionally(new SlackQueueFullException(
+                "Shed to keep room in the filling outbound queue for more important messages"));
+    }
+
+    /**
+     * Spreads the shedding thresholds evenly between the configured one for LOW and a full queue
+     * CRITICAL never reaches its threshold
+     */
+    private static double[] shedFills(double threshold) {
+        Severity[] severities = Severity.values();
+        double[] fills = new double[severities.length];
+        int lowest = severities.length - 1;
+        for (int i = 0; i < severities.length; i++) {
+            fills[i] = threshold <= 0 || i == 0
+                    ? Double.POSITIVE_INFINITY
+                    : threshold + (1 - threshold) * (lowest - i) / lowest;
+        }
+        return fills;
+    }
+
+    private boolean makeRoom(PendingDelivery delivery, long size, boolean mayWait) {
+        switch (policy) {
+            case BLOCK:
+                if (mayWait) {
+                    return awaitRoom(delivery, size);
+                }
+                reject(delivery, "Outbound queue is full");
+                return false;
+            case DROP_OLDEST:
+            case DROP_LOWEST_SEVERITY:
+                return dropForRoom(delivery, size);
+            case COALESCE:
+                coalesce(delivery);
+                return false;
+            default:
+                reject(delivery, "Outbound queue is full");
+                return false;
+        }
+    }
+
+    private boolean awaitRoom(PendingDelivery delivery, long size) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        blockedSenders.incrementAndGet();
+        lock.lock();
+        try {
+            while (!reserve(size)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    reject(delivery, "Timed out waiting for room in the outbound queue");
+                    return false;
+                }
+                notFull.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(delivery, "Interrupted while waiting for room in the outbound queue");
+            return false;
+        } finally {
+            lock.unlock();
+            blockedSenders.decrementAndGet();
+        }
+    }
+
+    private boolean dropForRoom(PendingDelivery delivery, long size) {
+        do {
+            PendingDelivery victim = policy == OverflowPolicy.DROP_OLDEST
+                    ? oldestUnsent()
+                    : leastImportantUnsent(delivery.message.getSeverity());
+            if (victim == null) {
+                reject(delivery, "Outbound queue is full of more important messages");
+                return false;
+            }
+            if (victim.started.compareAndSet(false, true)) {
+                // Completing the victim releases its room through release()
+                dropped.increment();
+                LOGGER.warning("Outbound queue full, dropping unsent message to " + victim.channelId);
+                victim.result.completeExceptionally(
+                        new SlackQueueFullException("Dropped from the full outbound queue to make room"));
+                victim.cancel();
+            }
+        } while (!reserve(size));
+        return true;
+    }
+
+    private PendingDelivery oldestUnsent() {
+        PendingDelivery oldest = null;
+        for (QueuedDeliveries queued : queuedBySeverity) {
+            PendingDelivery candidate = queued.firstUnsent();
+            if (candidate != null && (oldest == null || candidate.queuedAt - oldest.queuedAt < 0)) {
+                oldest = candidate;
+            }
+        }
+        return oldest;
+    }
+
+    private PendingDelivery leastImportantUnsent(Severity incoming) {
+        Severity[] severities = Severity.values();
+        for (int i = severities.length - 1; i >= 0; i--) {
+            if (incoming.isLowerThan(severities[i])) {
+                return null;
+            }
+            PendingDelivery candidate = queuedBySeverity.get(i).firstUnsent();
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void coalesce(PendingDelivery delivery) {
+        while (true) {
+            CoalescedSummary summary = summaries.computeIfAbsent(delivery.channelId, CoalescedSummary::new);
+            if (summary.absorb(delivery)) {
+                coalesced.increment();
+                break;
+            }
+            // The summary was handed off for sending meanwhile, start a new one
+            summaries.remove(delivery.channelId, summary);
+        }
+        // Room may have opened up since the failed reservation
+        flushSummaries();
+    }
+
+    private void flushSummaries() {
+        for (CoalescedSummary summary : summaries.values()) {
+            if (summary.isEmpty()) {
+                continue;
+            }
+            long size = estimateBytes(summary.toMessage());
+            if (!reserve(size)) {
+                return;
+            }
+            if (!summaries.remove(summary.channelId, summary) || !summary.close()) {
+                unreserve(size);
+                continue;
+            }
+            PendingDelivery delivery = new PendingDelivery(summary.toMessage(), summary.channelId);
+            delivery.result.whenComplete(summary::completeAll);
+            accept(delivery, size);
+        }
+    }
+
+    private void accept(PendingDelivery delivery, long size) {
+        delivery.queuedBytes = size;
+        delivery.queuedAt = System.nanoTime();
+        delivery.queueWait = QueueWaitEvent.start();
+        QueuedDeliveries queued = queuedBySeverity.get(delivery.message.getSeverity().ordinal());
+        queued.add(delivery);
+        delivery.result.whenComplete((response, error) -> release(delivery, queued));
+        if (delivery.deadline != PendingDelivery.NO_DEADLINE && !armExpiry(delivery)) {
+            return;
+        }
+        sink.accept(delivery);
+    }
+
+    /**
+     * Expires the delivery at its deadline unless its first attempt has started by then
+     * Returns false if the deadline has already passed
+     */
+    private boolean armExpiry(PendingDelivery delivery) {
+        long remaining = delivery.remainingNanos();
+        if (remaining <= 0) {
+            expireUnsent(delivery);
+            return false;
+        }
+        Future<?> timer = SlackExecutors.scheduler().schedule(() -> expireUnsent(delivery), remaining,
+                TimeUnit.NANOSECONDS);
+        delivery.result.whenComplete((response, error) -> timer.cancel(false));
+        return true;
+    }
+
+    private void expireUnsent(PendingDelivery delivery) {
+        // Claiming the delivery keeps any attempt still waiting for it from sending it
+        if (delivery.started.compareAndSet(false, true)) {
+            expire(delivery, "Delivery deadline passed before the message was sent");
+        }
+    }
+
+    private void release(PendingDelivery delivery, QueuedDeliveries queued) {
+        unreserve(delivery.queuedBytes);
+        queued.unlinkFinished(Math.max(MIN_SWEEP_INTERVAL, depth.get()));
+        if (!summaries.isEmpty()) {
+            flushSummaries();
+        }
+        if (blockedSenders.get() > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean reserve(long size) {
+        int count;
+        do {
+            count = depth.get();
+            if (count >= maxMessages) {
+                return false;
+            }
+        } while (!depth.compareAndSet(count, count + 1));
+
+        long total = bytes.addAndGet(size);
+        // A single oversized message is still let through into an otherwise empty queue
+        if (total > maxBytes && total != size) {
+            unreserve(size);
+            return false;
+        }
+        return true;
+    }
+
+    private void unreserve(long size) {
+        bytes.addAndGet(-size);
+        depth.decrementAndGet();
+    }
+
+    private void reject(PendingDelivery delivery, String reason) {
+        rejected.increment();
+        LOGGER.warning(reason + ", rejecting message to " + delivery.channelId);
+        delivery.result.completeExceptionally(new SlackQueueFullException(reason));
+    }
+
+    private static long sizeOf(PendingDelivery delivery) {
+        return delivery.payload != null ? delivery.payload.size() : estimateBytes(delivery.message);
+    }
+
+    /**
+     * Estimates the encoded size of a message from the text it carries
+     */
+    static long estimateBytes(SlackMessage message) {
+        long size = MESSAGE_OVERHEAD_BYTES;
+        if (message.getBlocks() == null) {
+            return size;
+        }
+        for (SlackMessage.Block block : message.getBlocks()) {
+            size += BLOCK_OVERHEAD_BYTES + textLength(block.getText());
+            if (block.getFields() != null) {
+                for (SlackMessage.Text field : block.getFields()) {
+                    size += BLOCK_OVERHEAD_BYTES + textLength(field);
+                }
+            }
+            if (block.getElements() != null) {
+                size += (long) BLOCK_OVERHEAD_BYTES * block.getElements().size();
+            }
+        }
+        return size;
+    }
+
+    private static int textLength(SlackMessage.Text text) {
+        return text != null && text.getText() != null ? text.getText().length() : 0;
+    }
+
+    /**
+     * Deliveries of one severity accepted and not yet finished, oldest first
+     * A finished delivery is not searched for and removed; it is unlinked once it reaches the head, or by a
+     * sweep once as many have finished as the queue holds, so releasing one costs O(1) amortized
+     * Deliveries never started are also kept in a second queue, from which started and finished ones are
+     * unlinked as they are passed over, so finding one to drop does not rescan those in flight
+     */
+    private static final class QueuedDeliveries {
+        private final Queue<PendingDelivery> all = new ConcurrentLinkedQueue<>();
+        private final Queue<PendingDelivery> unsent = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger finishedSinceSweep = new AtomicInteger();
+
+        void add(PendingDelivery delivery) {
+            all.add(delivery);
+            unsent.add(delivery);
+        }
+
+        /**
+         * Returns the oldest delivery whose first attempt has not started, or null
+         */
+        PendingDelivery firstUnsent() {
+            Iterator<PendingDelivery> deliveries = unsent.iterator();
+            while (deliveries.hasNext()) {
+                PendingDelivery delivery = deliveries.next();
+                if (!isSent(delivery)) {
+                    return delivery;
+                }
+                // Started never reverts, so the delivery can never be unsent again
+                deliveries.remove();
+            }
+            return null;
+        }
+
+        /**
+         * Called once per finished delivery
+         *
+         * @param sweepInterval finished deliveries after which both queues are swept in full
+         */
+        void unlinkFinished(int sweepInterval) {
+            unlinkHead(all, delivery -> delivery.result.isDone());
+            unlinkHead(unsent, QueuedDeliveries::isSent);
+            if (finishedSinceSweep.incrementAndGet() >= sweepInterval && finishedSinceSweep.getAndSet(0) > 0) {
+                all.removeIf(delivery -> delivery.result.isDone());
+                unsent.removeIf(QueuedDeliveries::isSent);
+            }
+        }
+
+        private static void unlinkHead(Queue<PendingDelivery> queue, Predicate<PendingDelivery> finished) {
+            Iterator<PendingDelivery> deliveries = queue.iterator();
+            while (deliveries.hasNext() && finished.test(deliveries.next())) {
+                deliveries.remove();
+            }
+        }
+
+        private static boolean isSent(PendingDelivery delivery) {
+            return delivery.started.get() || delivery.result.isDone();
+        }
+    }
+
+    /**
+     * Messages to one channel that arrived while the queue was full
+     * Sent as a single summary message once there is room, listing the distinct messages by template type
+     * and title with their count and highest severity; each absorbed message's result completes with the
+     * outcome of the summary
+     */
+    private static final class CoalescedSummary {
+        private final String channelId;
+        private final List<CompletableFuture<SlackResponse>> results = new ArrayList<>();
+        private final Map<String, FoldedMessages> folded = new LinkedHashMap<>();
+        private int unlisted;
+        private Severity highest = Severity.LOW;
+        private LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+        private boolean closed;
+
+        CoalescedSummary(String channelId) {
+            this.channelId = channelId;
+        }
+
+        synchronized boolean absorb(PendingDelivery delivery) {
+            if (closed) {
+                return false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (firstSeen == null) {
+                firstSeen = now;
+            }
+            lastSeen = now;
+            Severity severity = delivery.message.getSeverity();
+            if (highest.isLowerThan(severity)) {
+                highest = severity;
+            }
+            String title = titleOf(delivery.message);
+            FoldedMessages same = folded.get(title);
+            if (same == null && folded.size() < MAX_SUMMARY_LINES) {
+                same = new FoldedMessages();
+                folded.put(title, same);
+            }
+            if (same != null) {
+                same.add(severity);
+            } else {
+                unlisted++;
+            }
+            results.add(delivery.result);
+            return true;
+        }
+
+        synchronized boolean isEmpty() {
+            return results.isEmpty();
+        }
+
+        synchronized int size() {
+            return results.size();
+        }
+
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        synchronized SlackMessage toMessage() {
+            StringBuilder lines = new StringBuilder();
+            folded.forEach((title, messages) -> lines.append("• ").append(messages.count).append("× [")
+                    .append(messages.highest).append("] ").append(title).append('\n'));
+            if (unlisted > 0) {
+                lines.append("• ").append(unlisted).append(" more\n");
+            }
+            return SlackMessageBuilder.create(channelId)
+                    .severity(highest)
+                    .addSection("⚠️ *" + results.size() + " notifications were coalesced* "
+                            + "because the outbound queue was full")
+                    .addSection(lines.toString().trim())
+                    .addContext("Highest severity: " + highest,
+                            "First: " + firstSeen.format(TIME_FORMAT),
+                            "Last: " + lastSeen.format(TIME_FORMAT))
+                    .build();
+        }
+
+        /**
+         * Names a message by its template type and the first line of its text
+         */
+        private static String titleOf(SlackMessage message) {
+            String text = message.getText();
+            if ((text == null || text.isBlank()) && message.getBlocks() != null) {
+                for (SlackMessage.Block block : message.getBlocks()) {
+                    if (block.getText() != null && block.getText().getText() != null
+                            && !block.getText().getText().isBlank()) {
+                        text = block.getText().getText();
+                        break;
+                    }
+                }
+            }
+            String title = text == null || text.isBlank() ? "(no text)" : text.strip().lines().findFirst().orElse("");
+            if (title.length() > MAX_TITLE_LENGTH) {
+                title = title.substring(0, MAX_TITLE_LENGTH - 1) + "…";
+            }
+            return message.getTemplateType() != null ? message.getTemplateType() + ": " + title : title;
+        }
+
+        void completeAll(SlackResponse response, Throwable error) {
+            List<CompletableFuture<SlackResponse>> absorbed;
+            synchronized (this) {
+                absorbed = new ArrayList<>(results);
+            }
+            for (CompletableFuture<SlackResponse> result : absorbed) {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count and highest severity of the identical messages folded into a summary line
+     */
+    private static final class FoldedMessages {
+        private int count;
+        private Severity highest = Severity.LOW;
+
+        void add(Severity severity) {
+            count++;
+            if (highest.isLowerThan(severity)) {
+                highest = severity;
+            }
+        }
+    }
+}
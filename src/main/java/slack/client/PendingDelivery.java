@@ -0,0 +1,82 @@
+package slack.client;
+
+import slack.exception.SlackException;
+import slack.message.SlackMessage;
+import slack.model.SlackPayload;
+import slack.model.SlackResponse;
+import slack.spool.SpoolRecord;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the state of a single asynchronous send across its retry attempts
+ */
+class PendingDelivery {
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    final SlackMessage message;
+    final String channelId;
+    final CompletableFuture<SlackResponse> result = new CompletableFuture<>();
+    // Claimed by the first attempt, or by the outbound queue when it drops the delivery unsent
+    final AtomicBoolean started = new AtomicBoolean();
+
+    volatile SlackPayload payload;
+    volatile int attempts;
+    volatile SlackException lastFailure;
+    volatile Future<?> inFlight;
+    volatile ScheduledFuture<?> scheduledAttempt;
+    // Estimated size counted against the outbound queue's byte limit
+    long queuedBytes;
+    long queuedAt;
+    volatile SpoolRecord spoolRecord;
+    // Timestamp of the message this delivery edits through chat.update, null for a new post
+    String updateTs;
+    // Incoming webhook the delivery is posted to instead of the Web API
+    URI webhookUri;
+    // System.nanoTime() by which the message must be delivered, or NO_DEADLINE
+    long deadline = NO_DEADLINE;
+    // Set while an attempt is on the wire, and once any attempt ended without Slack explicitly turning it down;
+    // while both are false the message provably never reached Slack
+    volatile boolean attemptInFlight;
+    volatile boolean mayHaveLanded;
+    // Open JFR events of the current wait, null when not recorded
+    QueueWaitEvent queueWait;
+    volatile RetryWaitEvent retryWait;
+
+    PendingDelivery(SlackMessage message, String channelId) {
+        this.message = message;
+        this.channelId = channelId;
+    }
+
+    /**
+     * Returns the nanoseconds left until the deadline, negative once it has passed
+     */
+    long remainingNanos() {
+        return deadline == NO_DEADLINE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * Returns true if no attempt can have posted the message: none was made, or Slack rejected each one
+     */
+    boolean provablyUndelivered() {
+        return !attemptInFlight && !mayHaveLanded;
+    }
+
+    /**
+     * Stops the current attempt and any attempt that is already scheduled
+     */
+    void cancel() {
+        ScheduledFuture<?> scheduled = scheduledAttempt;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        Future<?> exchange = inFlight;
+        if (exchange != null) {
+            exchange.cancel(true);
+        }
+    }
+}
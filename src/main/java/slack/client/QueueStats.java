@@ -0,0 +1,80 @@
+package slack.client;
+
+/**
+ * Point-in-time view of the outbound queue
+ */
+public final class QueueStats {
+    private final int depth;
+    private final long bytes;
+    private final long dropped;
+    private final long rejected;
+    private final long coalesced;
+    private final long expired;
+    private final long shed;
+
+    QueueStats(int depth, long bytes, long dropped, long rejected, long coalesced, long expired, long shed) {
+        this.depth = depth;
+        this.bytes = bytes;
+        this.dropped = dropped;
+        this.rejected = rejected;
+        this.coalesced = coalesced;
+        this.expired = expired;
+        this.shed = shed;
+    }
+
+    /**
+     * Returns the number of messages accepted and not yet delivered or failed
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the estimated payload bytes of those messages
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns how many queued messages were dropped unsent to make room for newer ones
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns how many new messages were turned away because the queue was full
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns how many new messages were folded into a summary because the queue was full
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Returns how many messages were given up because their delivery deadline passed
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Returns how many new messages of low severity were turned away because the queue was filling up
+     */
+    public long getShed() {
+        return shed;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueStats{depth=" + depth + ", bytes=" + bytes + ", dropped=" + dropped
+                + ", rejected=" + rejected + ", coalesced=" + coalesced + ", expired=" + expired
+                + ", shed=" + shed + "}";
+    }
+}
@@ -0,0 +1,39 @@
+package slack.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the time a message spends in the outbound queue before its first attempt
+ * Covers channel ordering, rate-limit and in-flight waits
+ */
+@Name("slack.QueueWait")
+@Label("Slack Queue Wait")
+@Category("Slack")
+@Description("Time from acceptance into the outbound queue until the first attempt")
+@StackTrace(false)
+class QueueWaitEvent extends jdk.jfr.Event {
+    @Label("Channel")
+    String channel;
+
+    @Label("Template Type")
+    String templateType;
+
+    @Label("Severity")
+    String severity;
+
+    /**
+     * Returns a started event, or null when the event is not being recorded
+     */
+    static QueueWaitEvent start() {
+        QueueWaitEvent event = new QueueWaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,42 @@
+package slack.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the wait between a failed attempt and the start of the next one
+ */
+@Name("slack.RetryWait")
+@Label("Slack Retry Wait")
+@Category("Slack")
+@Description("Backoff or Retry-After pause before a retry")
+@StackTrace(false)
+class RetryWaitEvent extends jdk.jfr.Event {
+    @Label("Channel")
+    String channel;
+
+    @Label("Template Type")
+    String templateType;
+
+    @Label("Next Attempt")
+    int attempt;
+
+    @Label("Reason")
+    @Description("Failure kind of the attempt that is retried")
+    String reason;
+
+    /**
+     * Returns a started event, or null when the event is not being recorded
+     */
+    static RetryWaitEvent start() {
+        RetryWaitEvent event = new RetryWaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
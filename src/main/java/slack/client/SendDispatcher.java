@@ -0,0 +1,134 @@
+package slack.client;
+
+import slack.config.DispatcherMode;
+import slack.message.Severity;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Logger;
+
+/**
+ * Runs send attempts on the configured threads and caps how many are in flight at once
+ * Attempts over the cap wait instead of blocking the submitting thread, in a {@link SeverityQueue}
+ * A free slot goes to the most important waiting attempt, so a CRITICAL message overtakes queued LOW ones
+ */
+class SendDispatcher {
+    private static final Logger LOGGER = Logger.getLogger(SendDispatcher.class.getName());
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final DispatcherMode effectiveMode;
+    private final Semaphore inFlightPermits;
+    private final int maxInFlight;
+    private final SeverityQueue<Runnable> waiting;
+
+    /**
+     * @param agingMs how long an attempt waits before it ranks one severity level higher, 0 for no aging
+     */
+    SendDispatcher(DispatcherMode mode, int poolSize, int maxInFlight, long agingMs) {
+        ExecutorService created = null;
+        DispatcherMode effective = mode;
+        if (mode == DispatcherMode.VIRTUAL_THREADS) {
+            created = SlackExecutors.newVirtualThreadExecutor();
+            if (created == null) {
+                LOGGER.info("Virtual threads are not available, using a platform thread pool of " + poolSize);
+                effective = DispatcherMode.PLATFORM_POOL;
+            }
+        }
+        if (effective == DispatcherMode.PLATFORM_POOL) {
+            created = SlackExecutors.newPlatformPool(poolSize);
+        }
+
+        this.ownedExecutor = created;
+        this.executor = created != null ? created : Runnable::run;
+        this.effectiveMode = effective;
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.waiting = new SeverityQueue<>(agingMs);
+    }
+
+    /**
+     * Creates a dispatcher with its own in-flight cap that runs attempts on another dispatcher's threads
+     * Used by {@link SlackClientPool}, so workspaces share threads without sharing the cap
+     */
+    SendDispatcher(SendDispatcher shared, int maxInFlight, long agingMs) {
+        this.ownedExecutor = null;
+        this.executor = shared.executor;
+        this.effectiveMode = shared.effectiveMode;
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.waiting = new SeverityQueue<>(agingMs);
+    }
+
+    /**
+     * Runs an attempt once an in-flight slot is free, ahead of waiting attempts of lower severity
+     * The attempt must call {@link #complete()} exactly once when it has finished
+     */
+    void submit(Runnable attempt, Severity severity) {
+        if (inFlightPermits.tryAcquire()) {
+            start(attempt);
+        } else {
+            waiting.add(attempt, severity);
+            startWaiting();
+        }
+    }
+
+    /**
+     * Releases the in-flight slot held by a finished attempt
+     */
+    void complete() {
+        inFlightPermits.release();
+        startWaiting();
+    }
+
+    /**
+     * Returns the executor that runs attempts, or null when attempts run on the caller
+     */
+    Executor executor() {
+        return ownedExecutor;
+    }
+
+    /**
+     * Stops the threads this dispatcher created once their attempts have finished
+     * Dispatchers running on shared threads leave them to their owner
+     */
+    void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    DispatcherMode effectiveMode() {
+        return effectiveMode;
+    }
+
+    int inFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    int waitingCount() {
+        return waiting.size();
+    }
+
+    private void startWaiting() {
+        while (waiting.size() > 0 && inFlightPermits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                // Counted by submit() but not yet visible in its queue
+                inFlightPermits.release();
+                return;
+            }
+            start(next);
+        }
+    }
+
+    private void start(Runnable attempt) {
+        try {
+            executor.execute(attempt);
+        } catch (RuntimeException e) {
+            complete();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package slack.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the encoding of a message into its JSON payload
+ */
+@Name("slack.Serialization")
+@Label("Slack Serialization")
+@Category("Slack")
+@Description("Encoding of a message into the request payload")
+@StackTrace(false)
+class SerializationEvent extends jdk.jfr.Event {
+    @Label("Channel")
+    String channel;
+
+    @Label("Template Type")
+    String templateType;
+
+    @Label("Payload Size")
+    @DataAmount
+    long payloadBytes;
+
+    /**
+     * Returns a started event, or null when the event is not being recorded
+     */
+    static SerializationEvent start() {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
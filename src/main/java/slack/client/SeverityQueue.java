@@ -0,0 +1,85 @@
+package slack.client;
+
+import slack.message.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free queue that hands out the most urgent entry first, FIFO within a severity
+ * An entry ranks as its severity level minus the aging intervals it has waited,
+ * so a steady stream of important entries cannot hold back less important ones forever
+ */
+final class SeverityQueue<T> {
+    private final List<Queue<Entry<T>>> bySeverity;
+    private final AtomicInteger size = new AtomicInteger();
+    private final long agingNanos;
+
+    /**
+     * @param agingMs how long an entry waits before it ranks one severity level higher, 0 for no aging
+     */
+    SeverityQueue(long agingMs) {
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMs);
+        this.bySeverity = new ArrayList<>(Severity.values().length);
+        for (int i = 0; i < Severity.values().length; i++) {
+            bySeverity.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    void add(T item, Severity severity) {
+        bySeverity.get(severity.ordinal()).add(new Entry<>(item, System.nanoTime()));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Takes the entry with the best rank, ties going to the more important severity
+     * Returns null when the queue is empty, or when an entry is counted by add() but not yet visible
+     */
+    T poll() {
+        while (size.get() > 0) {
+            long now = System.nanoTime();
+            Queue<Entry<T>> best = null;
+            long bestRank = Long.MAX_VALUE;
+            for (int level = 0; level < bySeverity.size(); level++) {
+                Queue<Entry<T>> queue = bySeverity.get(level);
+                Entry<T> head = queue.peek();
+                if (head == null) {
+                    continue;
+                }
+                long rank = agingNanos > 0 ? level - (now - head.queuedAt) / agingNanos : level;
+                if (rank < bestRank) {
+                    best = queue;
+                    bestRank = rank;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            Entry<T> next = best.poll();
+            if (next != null) {
+                size.decrementAndGet();
+                return next.item;
+            }
+            // Taken by a concurrent caller, rank again
+        }
+        return null;
+    }
+
+    int size() {
+        return Math.max(0, size.get());
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long queuedAt;
+
+        Entry(T item, long queuedAt) {
+            this.item = item;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
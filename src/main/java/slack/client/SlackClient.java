@@ -1,36 +1,150 @@
 package slack.client;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import slack.config.SlackConfig;
+import slack.dedup.DedupWindow;
+import slack.dedup.MessageFingerprint;
+import slack.exception.SlackCircuitOpenException;
+import slack.exception.SlackClientClosedException;
+import slack.exception.SlackDeadlineExceededException;
+import slack.exception.SlackDuplicateMessageException;
 import slack.exception.SlackException;
+import slack.exception.SlackQueueFullException;
+import slack.exception.SlackRateLimitedException;
+import slack.message.Severity;
 import slack.message.SlackMessage;
 import slack.message.SlackMessageBuilder;
+import slack.metrics.SlackMetrics;
+import slack.model.SlackPayload;
 import slack.model.SlackRequest;
 import slack.model.SlackResponse;
+import slack.ratelimit.SlackRateLimiter;
+import slack.retry.CircuitBreaker;
+import slack.retry.ExponentialBackoff;
+import slack.retry.RetryBudget;
+import slack.retry.SlackErrorClassifier;
+import slack.spool.MessageSpool;
+import slack.spool.SpoolRecord;
+import slack.spool.SpooledMessage;
 import slack.template.MessageTemplate;
+import slack.thread.ThreadIndex;
+import slack.transport.SlackHttpTransport;
+import slack.transport.SlackTransport;
+import slack.transport.TransportRequest;
+import slack.transport.TransportResponse;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
 /**
  * Main Slack client for sending messages
  * This is the primary interface for users of the library
+ * Close the client when the application stops so queued messages get a chance to go out
  */
-public class SlackClient {
+public class SlackClient implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(SlackClient.class.getName());
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String RATE_LIMITED_ERROR = "ratelimited";
+    private static final String UPDATE_METHOD = "chat.update";
+    private static final String WEBHOOK_METHOD = "incoming-webhook";
+    // Shortest attempt timeout worth trying before a delivery deadline
+    private static final long MIN_ATTEMPT_TIMEOUT_MS = 500;
+    private static final long MAX_TTL_MS = TimeUnit.DAYS.toMillis(365);
     
     private final SlackConfig config;
+    private final SendDispatcher dispatcher;
+    private final SlackTransport transport;
+    private final URI apiUri;
+    private final String apiMethod;
+    private final URI updateUri;
+    private final Map<String, URI> webhooks;
+    private final SlackRateLimiter rateLimiter;
+    private final ExponentialBackoff backoff;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
+    private final ChannelLanes lanes;
+    private final OutboundQueue outboundQueue;
+    private final MessageSpool spool;
+    private final DedupWindow dedupWindow;
+    private final DigestBuffer digest;
+    private final ThreadIndex threadIndex;
+    // First messages of correlation threads still on their way, keyed by channel and correlation key
+    private final ConcurrentMap<String, ThreadOpening> openingThreads = new ConcurrentHashMap<>();
+    private final SlackMetrics metrics = new SlackMetrics();
+    private volatile boolean closed;
+    // System.nanoTime() at which a shutdown stops waiting for deliveries
+    private volatile long drainDeadline;
 
     public SlackClient(SlackConfig config) {
+        this(config, new SendDispatcher(config.getDispatcherMode(), config.getDispatcherPoolSize(),
+                config.getMaxInFlightRequests(), config.getPriorityAgingMs()), null);
+    }
+
+    /**
+     * Creates a client on resources shared with other clients
+     *
+     * @param sharedTransport transport to use instead of the configured one, or null
+     */
+    SlackClient(SlackConfig config, SendDispatcher dispatcher, SlackTransport sharedTransport) {
         this.config = config;
+        this.dispatcher = dispatcher;
+        this.transport = sharedTransport != null ? sharedTransport : createTransport(config, dispatcher.executor());
+        this.apiUri = URI.create(config.getApiUrl());
+        this.apiMethod = apiMethodOf(apiUri);
+        this.updateUri = apiUri.resolve(UPDATE_METHOD);
+        this.webhooks = new HashMap<>();
+        config.getWebhookUrls().forEach((channelId, url) -> webhooks.put(channelId, URI.create(url)));
+        this.rateLimiter = config.isRateLimitEnabled()
+                ? new SlackRateLimiter(config.getChannelRateLimit(), config.getMethodRateLimit())
+                : new SlackRateLimiter(null, null);
+        this.backoff = new ExponentialBackoff(config.getRetryDelayMs(), config.getMaxRetryDelayMs());
+        this.retryBudget = new RetryBudget(config.getRetryBudgetRatio(), config.getMinRetriesPerSecond());
+        this.circuitBreaker = config.isCircuitBreakerEnabled()
+                ? new CircuitBreaker(config.getCircuitFailureRateThreshold(), config.getCircuitSlowCallThresholdMs(),
+                        config.getCircuitMinimumCalls(), config.getCircuitOpenDurationMs(),
+                        config.getCircuitHalfOpenProbes())
+                : null;
+        this.lanes = config.isOrderedDelivery() ? new ChannelLanes(this::admit) : null;
+        this.outboundQueue = new OutboundQueue(config.getMaxQueuedMessages(), config.getMaxQueuedBytes(),
+                config.getOverflowPolicy(), config.getQueueOfferTimeoutMs(), config.getLoadSheddingThreshold(),
+                lanes != null ? lanes::enqueue : this::admit);
+        this.dedupWindow = config.getDedupWindowMs() > 0
+                ? new DedupWindow(config.getDedupWindowMs(), config.getDedupCapacity())
+                : null;
+        this.digest = config.isDigestEnabled()
+                ? new DigestBuffer(config.getDigestMaxMessages(), config.getDigestIntervalMs(), this::submit)
+                : null;
+        this.threadIndex = openThreadIndex(config);
+        metrics.registerGauge("queue.depth", () -> outboundQueue.stats().getDepth());
+        metrics.registerGauge("queue.bytes", () -> outboundQueue.stats().getBytes());
+        metrics.registerGauge("dispatcher.in_flight", dispatcher::inFlight);
+        metrics.registerGauge("dispatcher.waiting", dispatcher::waitingCount);
+        this.spool = openSpool(config);
+        if (spool != null) {
+            replaySpool();
+        }
     }
 
     /**
@@ -66,19 +180,27 @@ public class SlackClient {
 
     /**
      * Sends a SlackMessage to a specific channel
+     * Blocks until the message is delivered or all retry attempts have failed
+     * Returns false when the message was suppressed as a duplicate
+     * Sent at once even in digest mode
      */
     public boolean sendMessage(SlackMessage message, String channelId) throws SlackException {
         validateInputs(message, channelId);
         
-        message.setChannel(channelId);
-        return sendMessageWithRetry(message, channelId);
+        try {
+            // Never held back for a digest: the caller is waiting for this very message
+            await(send(message, channelId, true, false));
+        } catch (SlackDuplicateMessageException e) {
+            return false;
+        }
+        return true;
     }
 
     /**
      * Sends a message using a template
      */
     public boolean sendTemplate(MessageTemplate template) throws SlackException {
-        SlackMessage message = template.buildMessage();
+        SlackMessage message = render(template);
         return sendMessage(message);
     }
 
@@ -86,10 +208,124 @@ public class SlackClient {
      * Sends a message using a template to a specific channel
      */
     public boolean sendTemplate(MessageTemplate template, String channelId) throws SlackException {
-        SlackMessage message = template.buildMessage();
+        SlackMessage message = render(template);
         return sendMessage(message, channelId);
     }
 
+    /**
+     * Sends a SlackMessage to the default channel without blocking the caller
+     */
+    public CompletableFuture<SlackResponse> sendMessageAsync(SlackMessage message) {
+        return sendMessageAsync(message, config.getDefaultChannelId());
+    }
+
+    /**
+     * Sends a SlackMessage to a specific channel without blocking the caller
+     * The future completes with the Slack response (including ts and channel) or a SlackException
+     * Messages to the same channel are delivered in call order unless ordered delivery is disabled
+     * Cancelling the future stops any further retry attempts
+     * Fails at once with SlackCircuitOpenException while the circuit breaker considers Slack unavailable
+     * When the outbound queue is full the configured overflow policy applies; under BLOCK this call
+     * waits for room, under the other policies the future may fail with SlackQueueFullException
+     * With a deduplication window, a repeat of a message sent recently fails with SlackDuplicateMessageException;
+     * a failed send only stops counting when Slack provably never got it, not after a timeout or I/O error
+     * In digest mode, messages given MEDIUM or LOW severity explicitly complete once the digest carrying them
+     * has been sent
+     * A message with a correlation key is posted as a reply in the thread opened by the first message
+     * with that key in the channel, unless it names a thread itself
+     * A message with a time-to-live or deadline fails with SlackDeadlineExceededException once it cannot
+     * be delivered in time; attempt timeouts shrink to fit the remaining time
+     * Fails with SlackClientClosedException once the client has been shut down
+     */
+    public CompletableFuture<SlackResponse> sendMessageAsync(SlackMessage message, String channelId) {
+        return sendMessageAsync(message, channelId, true);
+    }
+
+    /**
+     * Sends a message like {@link #sendMessageAsync(SlackMessage, String)}
+     *
+     * @param mayWait false when called from the shared scheduler, which must never block;
+     *                under OverflowPolicy.BLOCK a full queue then fails the message at once
+     */
+    CompletableFuture<SlackResponse> sendMessageAsync(SlackMessage message, String channelId, boolean mayWait) {
+        return send(message, channelId, mayWait, true);
+    }
+
+    /**
+     * @param digestible false to send the message at once even when it would qualify for a digest
+     */
+    private CompletableFuture<SlackResponse> send(SlackMessage message, String channelId, boolean mayWait,
+                                                  boolean digestible) {
+        try {
+            validateInputs(message, channelId);
+        } catch (SlackException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (closed) {
+            return CompletableFuture.failedFuture(clientClosed());
+        }
+        if (circuitBreaker != null && circuitBreaker.isCallNotPermitted()) {
+            return CompletableFuture.failedFuture(circuitOpen());
+        }
+        
+        long idempotencyKey = dedupWindow != null ? idempotencyKeyOf(message, channelId) : 0L;
+        if (dedupWindow != null && !dedupWindow.tryRecord(idempotencyKey)) {
+            LOGGER.info("Suppressing duplicate Slack message to " + channelId);
+            return CompletableFuture.failedFuture(
+                    new SlackDuplicateMessageException("Identical message was sent recently"));
+        }
+        
+        // Only a failure proving the message never reached Slack makes a later identical send no duplicate;
+        // after a timeout or I/O error the post may have landed, so the key is kept
+        Runnable onUndelivered = dedupWindow != null ? () -> dedupWindow.forget(idempotencyKey) : null;
+        return digestible && digest != null && digest.accepts(message)
+                ? digest.add(message, channelId, onUndelivered)
+                : submit(message, channelId, mayWait, onUndelivered);
+    }
+
+    /**
+     * Sends a message using a template without blocking the caller
+     */
+    public CompletableFuture<SlackResponse> sendTemplateAsync(MessageTemplate template) {
+        return sendMessageAsync(render(template));
+    }
+
+    /**
+     * Sends a message using a template to a specific channel without blocking the caller
+     */
+    public CompletableFuture<SlackResponse> sendTemplateAsync(MessageTemplate template, String channelId) {
+        return sendMessageAsync(render(template), channelId);
+    }
+
+    /**
+     * Posts a message to the default channel that can later be edited in place
+     */
+    public LiveMessage sendLiveMessage(SlackMessage message) {
+        return sendLiveMessage(message, config.getDefaultChannelId());
+    }
+
+    /**
+     * Posts a message to a specific channel that can later be edited in place
+     * The post bypasses deduplication and digests; its outcome is available from {@link LiveMessage#posted()}
+     * Updates are sent through chat.update at most once per configured live update interval
+     */
+    public LiveMessage sendLiveMessage(SlackMessage message, String channelId) {
+        CompletableFuture<SlackResponse> firstPost;
+        try {
+            validateInputs(message, channelId);
+            if (closed) {
+                firstPost = CompletableFuture.failedFuture(clientClosed());
+            } else if (circuitBreaker != null && circuitBreaker.isCallNotPermitted()) {
+                firstPost = CompletableFuture.failedFuture(circuitOpen());
+            } else {
+                firstPost = submit(message, channelId, true, null);
+            }
+        } catch (SlackException e) {
+            firstPost = CompletableFuture.failedFuture(e);
+        }
+        return new LiveMessage(this, channelId, config.getLiveUpdateIntervalMs(), firstPost);
+    }
+
     /**
      * Creates a new message builder
      */
@@ -104,111 +340,976 @@ public class SlackClient {
         return SlackMessageBuilder.create(channelId);
     }
 
-    private boolean sendMessageWithRetry(SlackMessage message, String channelId) throws SlackException {
-        int attempts = 0;
-        Exception lastException = null;
-        
-        while (attempts < config.getRetryAttempts()) {
+    /**
+     * Returns the circuit breaker state, or CLOSED when the breaker is disabled
+     */
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker != null ? circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Returns the outbound queue's depth and drop counters
+     */
+    public QueueStats getQueueStats() {
+        return outboundQueue.stats();
+    }
+
+    /**
+     * Returns the send pipeline's counters, gauges and latency histograms
+     */
+    public SlackMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Shuts the client down, letting messages drain for the configured shutdown timeout
+     * See {@link #shutdown(Duration)}
+     */
+    @Override
+    public void close() {
+        shutdown(Duration.ofMillis(config.getShutdownTimeoutMs()));
+    }
+
+    /**
+     * Stops accepting messages and waits up to the timeout for queued and in-flight ones to be delivered
+     * Pending digests are sent at once and free in-flight slots go to the most important messages first;
+     * retries and rate-limit waits that would end after the timeout are given up right away
+     * Messages still undelivered at the timeout fail with SlackClientClosedException: spooled ones stay
+     * in the spool for the next client, the others are logged and returned
+     * Blocks the caller, so a JVM shutdown hook can send a last notification and then call this
+     * Calling it again only waits for what is left
+     *
+     * @return the messages that were neither delivered nor spooled
+     */
+    public List<SlackMessage> shutdown(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Shutdown timeout must not be negative");
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        beginShutdown(deadline);
+        return awaitShutdown(deadline);
+    }
+
+    /**
+     * Returns true once the client has been shut down and no longer accepts messages
+     */
+    public boolean isShutdown() {
+        return closed;
+    }
+
+    /**
+     * Stops accepting messages and sends pending digests
+     */
+    void beginShutdown(long deadline) {
+        if (closed) {
+            return;
+        }
+        drainDeadline = deadline;
+        closed = true;
+        if (digest != null) {
+            digest.flushAll();
+        }
+        // Retries and rate-limit waits scheduled before the shutdown are checked here, later ones when scheduled
+        for (PendingDelivery delivery : outboundQueue.outstanding()) {
+            ScheduledFuture<?> scheduled = delivery.scheduledAttempt;
+            if (scheduled != null && !scheduled.isDone()
+                    && scheduled.getDelay(TimeUnit.NANOSECONDS) >= deadline - System.nanoTime()) {
+                abandon(delivery);
+            }
+        }
+    }
+
+    /**
+     * Waits until every accepted message is finished or the deadline passes, then abandons the rest
+     */
+    List<SlackMessage> awaitShutdown(long deadline) {
+        List<PendingDelivery> outstanding;
+        while (!(outstanding = outboundQueue.outstanding()).isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            CompletableFuture<?>[] results = new CompletableFuture<?>[outstanding.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = outstanding.get(i).result;
+            }
             try {
-                attempts++;
-                LOGGER.info("Sending Slack message, attempt " + attempts);
-                
-                boolean success = performHttpRequest(message, channelId);
-                if (success) {
-                    LOGGER.info("Slack message sent successfully");
-                    return true;
+                CompletableFuture.allOf(results).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // Some failed, all are finished; look again for summaries queued meanwhile
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<SlackMessage> unsaved = new ArrayList<>();
+        int spooled = 0;
+        for (PendingDelivery delivery : outboundQueue.outstanding()) {
+            if (abandon(delivery)) {
+                if (delivery.spoolRecord != null) {
+                    spooled++;
+                } else {
+                    unsaved.add(delivery.message);
                 }
-                
-                if (attempts < config.getRetryAttempts()) {
-                    LOGGER.warning("Failed to send message, retrying in " + config.getRetryDelayMs() + "ms");
-                    Thread.sleep(config.getRetryDelayMs());
+            }
+        }
+        int coalesced = outboundQueue.abandonSummaries(
+                new SlackClientClosedException("Slack client shut down before the message was delivered"));
+        if (!unsaved.isEmpty() || spooled > 0 || coalesced > 0) {
+            LOGGER.warning("Slack client shut down with undelivered messages: " + unsaved.size() + " lost, "
+                    + spooled + " kept in the spool, " + coalesced + " coalesced");
+        }
+        dispatcher.shutdown();
+        return unsaved;
+    }
+
+    /**
+     * Fails a delivery the shutdown no longer waits for; returns false if it had already finished
+     */
+    private static boolean abandon(PendingDelivery delivery) {
+        if (!delivery.result.completeExceptionally(
+                new SlackClientClosedException("Slack client shut down before the message was delivered"))) {
+            return false;
+        }
+        delivery.cancel();
+        return true;
+    }
+
+    /**
+     * Abandons a delivery whose next attempt would only start after a running shutdown stops waiting
+     */
+    private boolean abandonedByShutdown(PendingDelivery delivery, long waitNanos) {
+        if (!closed || drainDeadline - System.nanoTime() - waitNanos > 0) {
+            return false;
+        }
+        abandon(delivery);
+        return true;
+    }
+
+    /**
+     * Returns the channel messages go to when the caller names none
+     */
+    String defaultChannelId() {
+        return config.getDefaultChannelId();
+    }
+
+    /**
+     * Routes a message into its correlation thread, then spools and queues it for delivery
+     * While the first message of a thread is still on its way, later messages with the same key
+     * wait for its ts instead of being posted top-level
+     * @param mayWait whether the caller may block waiting for room in the outbound queue
+     * @param onUndelivered run if the message fails in a way that proves it never reached Slack, may be null
+     */
+    private CompletableFuture<SlackResponse> submit(SlackMessage message, String channelId, boolean mayWait,
+                                                    Runnable onUndelivered) {
+        message.setChannel(channelId);
+        String correlationKey = message.getCorrelationKey();
+        if (correlationKey == null || message.getThreadTs() != null) {
+            return enqueue(message, channelId, mayWait, onUndelivered);
+        }
+
+        String threadKey = channelId + '\u0000' + correlationKey;
+        while (true) {
+            if (joinThread(message, channelId)) {
+                return enqueue(message, channelId, mayWait, onUndelivered);
+            }
+            ThreadOpening claim = new ThreadOpening();
+            ThreadOpening opening = openingThreads.putIfAbsent(threadKey, claim);
+            if (opening == null) {
+                if (joinThread(message, channelId)) {
+                    // The previous opener finished between the lookup and the claim
+                    openingThreads.remove(threadKey, claim);
+                    claim.finish();
+                    return enqueue(message, channelId, mayWait, onUndelivered);
                 }
-                
-            } catch (Exception e) {
-                lastException = e;
-                LOGGER.warning("Error sending Slack message (attempt " + attempts + "): " + e.getMessage());
-                
-                if (attempts < config.getRetryAttempts()) {
-                    try {
-                        Thread.sleep(config.getRetryDelayMs());
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new SlackException("Interrupted while retrying", ie);
+                CompletableFuture<SlackResponse> result = enqueue(message, channelId, mayWait, onUndelivered);
+                result.whenComplete((response, error) -> {
+                    if (response != null) {
+                        threadIndex.record(channelId, correlationKey, response.getTs());
                     }
-                }
+                    openingThreads.remove(threadKey, claim);
+                    claim.finish();
+                });
+                return result;
             }
+            CompletableFuture<SlackResponse> result = new CompletableFuture<>();
+            if (opening.await(() -> resubmit(message, channelId, result, onUndelivered))) {
+                return result;
+            }
+            // The opener finished meanwhile, look again
         }
-        
-        throw new SlackException("Failed to send message after " + config.getRetryAttempts() + " attempts", lastException);
     }
 
-    private boolean performHttpRequest(SlackMessage message, String channelId) throws IOException {
-        URL url = new URL(config.getApiUrl());
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    /**
+     * Submits a follower released by its thread's opener: as a reply if the opener was posted,
+     * else as the next opener, completing the future its caller already holds
+     */
+    private void resubmit(SlackMessage message, String channelId, CompletableFuture<SlackResponse> result,
+                          Runnable onUndelivered) {
+        if (result.isDone()) {
+            // Cancelled while it waited, so never sent
+            if (onUndelivered != null) {
+                onUndelivered.run();
+            }
+            return;
+        }
+        // Runs on whichever thread finished the opener, so it must not wait for room in the queue
+        CompletableFuture<SlackResponse> submitted;
+        if (closed) {
+            submitted = CompletableFuture.failedFuture(clientClosed());
+            if (onUndelivered != null) {
+                onUndelivered.run();
+            }
+        } else {
+            submitted = submit(message, channelId, false, onUndelivered);
+        }
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                submitted.cancel(false);
+            }
+        });
+        submitted.whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(response);
+            }
+        });
+    }
+
+    /**
+     * Makes the message a reply in its correlation thread if that thread is known, returning whether it was
+     */
+    private boolean joinThread(SlackMessage message, String channelId) {
+        String parentTs = threadIndex.lookup(channelId, message.getCorrelationKey());
+        if (parentTs == null) {
+            return false;
+        }
+        message.setThreadTs(parentTs);
+        return true;
+    }
+
+    /**
+     * Spools and queues a message for delivery
+     */
+    private CompletableFuture<SlackResponse> enqueue(SlackMessage message, String channelId, boolean mayWait,
+                                                     Runnable onUndelivered) {
+        PendingDelivery delivery = new PendingDelivery(message, channelId);
+        delivery.webhookUri = webhooks.get(channelId);
+        delivery.deadline = deadlineOf(message);
+        if (spool != null) {
+            // Durable before it is accepted; encoded once here instead of on the first attempt
+            delivery.payload = encode(delivery);
+            long expiresAt = delivery.deadline == PendingDelivery.NO_DEADLINE ? 0L
+                    : System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(delivery.remainingNanos());
+            delivery.spoolRecord = spool.append(channelId, message.getSeverity(), expiresAt, delivery.payload);
+        }
+        delivery.result.whenComplete((response, error) -> {
+            if (delivery.result.isCancelled()) {
+                delivery.cancel();
+            }
+            settleSpool(delivery, error);
+            if (error != null && onUndelivered != null && delivery.provablyUndelivered()) {
+                onUndelivered.run();
+            }
+        });
+        track(delivery);
+        outboundQueue.offer(delivery, mayWait);
+        return delivery.result;
+    }
+
+    /**
+     * Queues a chat.update replacing the content of a posted message
+     * Updates are not spooled: a newer state usually supersedes them, and replay would repost them
+     * They never wait for room in the queue, since they are mostly sent from the shared scheduler;
+     * under OverflowPolicy.BLOCK a full queue fails the update at once
+     */
+    CompletableFuture<SlackResponse> updateMessage(SlackMessage message, String channelId, String ts) {
+        if (webhooks.containsKey(channelId)) {
+            return CompletableFuture.failedFuture(
+                    new SlackException("Messages sent through an incoming webhook cannot be updated"));
+        }
+        if (closed) {
+            return CompletableFuture.failedFuture(clientClosed());
+        }
+        if (circuitBreaker != null && circuitBreaker.isCallNotPermitted()) {
+            return CompletableFuture.failedFuture(circuitOpen());
+        }
+        message.setChannel(channelId);
+        PendingDelivery delivery = new PendingDelivery(message, channelId);
+        delivery.updateTs = ts;
+        delivery.result.whenComplete((response, error) -> {
+            if (delivery.result.isCancelled()) {
+                delivery.cancel();
+            }
+        });
+        track(delivery);
+        outboundQueue.offer(delivery, false);
+        return delivery.result;
+    }
+
+    /**
+     * Returns the System.nanoTime() deadline set by the message's time-to-live or deadline, or the default
+     */
+    private long deadlineOf(SlackMessage message) {
+        long ttlMs = message.getTtlMs() > 0 ? message.getTtlMs() : config.getDefaultMessageTtlMs();
+        if (message.getDeadline() != null) {
+            long untilDeadlineMs = Math.max(0L, Duration.between(Instant.now(), message.getDeadline()).toMillis());
+            ttlMs = ttlMs > 0 ? Math.min(ttlMs, untilDeadlineMs) : untilDeadlineMs;
+        } else if (ttlMs <= 0) {
+            return PendingDelivery.NO_DEADLINE;
+        }
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(ttlMs, MAX_TTL_MS));
+    }
+
+    /**
+     * Returns the caller's idempotency key, or a fingerprint of the content, hashed per channel
+     */
+    private static long idempotencyKeyOf(SlackMessage message, String channelId) {
+        return message.getIdempotencyKey() != null
+                ? MessageFingerprint.ofKey(channelId, message.getIdempotencyKey())
+                : MessageFingerprint.of(channelId, message);
+    }
+
+    /**
+     * Resends the messages a previous client left unacknowledged in the spool
+     */
+    private void replaySpool() {
+        for (SpooledMessage spooled : spool.recover()) {
+            SlackMessage placeholder = new SlackMessage(spooled.getChannelId());
+            placeholder.setSeverity(spooled.getSeverity());
+            PendingDelivery delivery = new PendingDelivery(placeholder, spooled.getChannelId());
+            delivery.webhookUri = webhooks.get(spooled.getChannelId());
+            if (spooled.getExpiresAt() != 0) {
+                delivery.deadline = System.nanoTime()
+                        + TimeUnit.MILLISECONDS.toNanos(spooled.getExpiresAt() - System.currentTimeMillis());
+            }
+            delivery.payload = spooled.getPayload();
+            delivery.spoolRecord = spooled.getRecord();
+            delivery.result.whenComplete((response, error) -> {
+                if (error != null) {
+                    LOGGER.warning("Failed to resend spooled message to " + delivery.channelId + ": "
+                            + error.getMessage());
+                }
+                settleSpool(delivery, error);
+            });
+            track(delivery);
+            outboundQueue.restore(delivery);
+        }
+    }
+
+    /**
+     * Acknowledges the spooled copy once the message is delivered or has failed
+     * Only messages abandoned by a shutdown are kept for the next start; a failure reported to the caller
+     * is final, and keeping it would pin its segment until the next restart
+     */
+    private static void settleSpool(PendingDelivery delivery, Throwable error) {
+        SpoolRecord record = delivery.spoolRecord;
+        if (record == null) {
+            return;
+        }
+        if (error instanceof SlackClientClosedException) {
+            return;
+        }
+        record.ack();
+    }
+
+    private void attempt(PendingDelivery delivery) {
+        if (delivery.result.isDone()
+                || (delivery.attempts == 0 && !delivery.started.compareAndSet(false, true))) {
+            // Completed meanwhile, or dropped unsent by the outbound queue
+            dispatcher.complete();
+            return;
+        }
+        
+        if (delivery.remainingNanos() <= 0) {
+            dispatcher.complete();
+            outboundQueue.expire(delivery, "Delivery deadline passed before attempt " + (delivery.attempts + 1));
+            return;
+        }
+        
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            dispatcher.complete();
+            delivery.result.completeExceptionally(circuitOpen());
+            return;
+        }
         
+        int attempts = ++delivery.attempts;
+        LOGGER.info("Sending Slack message, attempt " + attempts);
+        if (attempts == 1) {
+            retryBudget.onFirstAttempt();
+            metrics.recordLatency(SlackMetrics.Phase.QUEUE_WAIT, System.nanoTime() - delivery.queuedAt);
+        }
+        commitWaitEvents(delivery);
+        
+        CompletableFuture<TransportResponse> exchange = null;
+        SlackException sendFailure = null;
+        delivery.attemptInFlight = true;
         try {
-            // Configure connection
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-            connection.setRequestProperty("Authorization", "Bearer " + config.getBotToken());
-            connection.setDoOutput(true);
-            connection.setConnectTimeout(config.getTimeoutMs());
-            connection.setReadTimeout(config.getTimeoutMs());
-            
-            // Create request
-            SlackRequest slackRequest = new SlackRequest();
-            slackRequest.setChannel(channelId);
-            slackRequest.setText("Automated Notification");
-            slackRequest.setBlocks(message.getBlocks());
-            String jsonPayload = GSON.toJson(slackRequest);
-            
-            LOGGER.info("Slack request payload: " + jsonPayload);
-            
-            // Send request
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
+            exchange = performRequest(delivery);
+        } catch (RuntimeException e) {
+            sendFailure = new SlackException("Error sending Slack message", e);
+        } finally {
+            if (exchange == null) {
+                // Nothing went out; the breaker permission must still be accounted for,
+                // otherwise a HALF_OPEN probe slot is never returned and the circuit stays stuck
+                delivery.attemptInFlight = false;
+                dispatcher.complete();
+                recordOutcome(sendFailure != null ? sendFailure : new SlackException("Error sending Slack message"), 0);
             }
-            
-            // Read response
-            int responseCode = connection.getResponseCode();
-            String responseBody = readResponse(connection);
-            
-            LOGGER.info("Slack API Response Code: " + responseCode);
-            LOGGER.info("Slack API Response: " + responseBody);
-            
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                SlackResponse response = GSON.fromJson(responseBody, SlackResponse.class);
-                if (response != null && response.isOk()) {
-                    return true;
-                } else {
-                    LOGGER.warning("Slack API returned error: " + (response != null ? response.getError() : "Unknown error"));
-                    return false;
-                }
+        }
+        if (exchange == null) {
+            onAttemptFailed(delivery, sendFailure);
+            return;
+        }
+        delivery.inFlight = exchange;
+        long startedAt = System.nanoTime();
+        HttpAttemptEvent event = HttpAttemptEvent.start();
+        metrics.recordAttempt(delivery.payload.size(), attempts > 1);
+        
+        exchange.whenComplete((transportResponse, error) -> {
+            dispatcher.complete();
+            long latencyNanos = System.nanoTime() - startedAt;
+            recordTimings(transportResponse, latencyNanos);
+            SlackException failure;
+            SlackResponse response = null;
+            if (error != null) {
+                failure = new SlackException("Error sending Slack message", error);
             } else {
-                LOGGER.warning("HTTP error: " + responseCode + " - " + responseBody);
-                return false;
+                try {
+                    response = handleResponse(transportResponse);
+                    failure = null;
+                } catch (SlackException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new SlackException("Invalid Slack API response", e);
+                }
+            }
+            recordOutcome(failure, latencyNanos);
+            if (failure != null && !rejectedBySlack(transportResponse, failure)) {
+                delivery.mayHaveLanded = true;
+            }
+            delivery.attemptInFlight = false;
+            if (event != null) {
+                commitAttemptEvent(event, delivery, transportResponse, failure);
             }
             
-        } finally {
-            connection.disconnect();
+            if (delivery.result.isDone()) {
+                return;
+            }
+            if (failure == null) {
+                LOGGER.info("Slack message sent successfully");
+                delivery.result.complete(response);
+                return;
+            }
+            if (error != null) {
+                LOGGER.warning("Error sending Slack message (attempt " + attempts + "): " + error.getMessage());
+            }
+            onAttemptFailed(delivery, failure);
+        });
+    }
+
+    /**
+     * Returns true if Slack answered the attempt with an explicit refusal, proving nothing was posted
+     * Timeouts, I/O errors and 5xx responses without an error code leave that open
+     */
+    private static boolean rejectedBySlack(TransportResponse transportResponse, SlackException failure) {
+        if (transportResponse == null) {
+            return false;
         }
+        int status = transportResponse.getStatusCode();
+        return failure.getErrorCode() != null || (status >= 400 && status < 500);
     }
 
-    private String readResponse(HttpURLConnection connection) throws IOException {
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(
-                        connection.getResponseCode() >= 400 ? 
-                            connection.getErrorStream() : connection.getInputStream(),
-                        StandardCharsets.UTF_8))) {
-            
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null) {
-                response.append(line).append(System.lineSeparator());
+    /**
+     * Feeds the circuit breaker: only failures that mean Slack or the network is unhealthy count against it
+     */
+    private void recordOutcome(SlackException failure, long latencyNanos) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (failure == null
+                || failure instanceof SlackRateLimitedException
+                || !SlackErrorClassifier.isRetryable(failure)) {
+            circuitBreaker.recordSuccess(latencyNanos);
+        } else {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    /**
+     * Counts a delivery entering the pipeline and records its outcome once it finishes
+     */
+    private void track(PendingDelivery delivery) {
+        long sentAt = System.nanoTime();
+        metrics.recordSend();
+        delivery.result.whenComplete((response, error) -> {
+            if (error == null) {
+                metrics.recordSuccess();
+                metrics.recordLatency(SlackMetrics.Phase.TOTAL, System.nanoTime() - sentAt);
+            } else {
+                metrics.recordFailure(failureKindOf(error));
+            }
+        });
+    }
+
+    private void recordTimings(TransportResponse transportResponse, long latencyNanos) {
+        metrics.recordLatency(SlackMetrics.Phase.ATTEMPT, latencyNanos);
+        if (transportResponse == null) {
+            return;
+        }
+        if (transportResponse.getConnectionWaitNanos() >= 0) {
+            metrics.recordLatency(SlackMetrics.Phase.CONNECTION_WAIT, transportResponse.getConnectionWaitNanos());
+        }
+        if (transportResponse.getFirstByteNanos() >= 0) {
+            metrics.recordLatency(SlackMetrics.Phase.FIRST_BYTE, transportResponse.getFirstByteNanos());
+        }
+    }
+
+    /**
+     * Returns the Slack error code that ended a delivery, or the kind of failure when Slack gave none
+     */
+    private static String failureKindOf(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof CancellationException) {
+            return "cancelled";
+        }
+        if (!(error instanceof SlackException)) {
+            return "unexpected_error";
+        }
+        if (error instanceof SlackDeadlineExceededException) {
+            return "deadline_exceeded";
+        }
+        if (error instanceof SlackClientClosedException) {
+            return "client_closed";
+        }
+        if (error instanceof SlackQueueFullException) {
+            return "queue_full";
+        }
+        if (error instanceof SlackCircuitOpenException) {
+            return "circuit_open";
+        }
+        SlackException failure = (SlackException) error;
+        if (failure.getErrorCode() != null) {
+            return failure.getErrorCode();
+        }
+        if (failure.getHttpStatusCode() > 0) {
+            return "http_" + failure.getHttpStatusCode();
+        }
+        for (Throwable cause = failure.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return "timeout";
+            }
+        }
+        return "io_error";
+    }
+
+    /**
+     * Renders a template, noting its type on the message for diagnostics
+     */
+    static SlackMessage render(MessageTemplate template) {
+        TemplateRenderEvent event = TemplateRenderEvent.start();
+        SlackMessage message = template.buildMessage();
+        if (message != null && message.getTemplateType() == null) {
+            message.setTemplateType(templateTypeOf(template));
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.templateType = templateTypeOf(template);
+                event.blocks = message != null && message.getBlocks() != null ? message.getBlocks().size() : 0;
+                event.commit();
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Names a template by its class; lambdas by the class that declared them
+     */
+    private static String templateTypeOf(MessageTemplate template) {
+        Class<?> type = template.getClass();
+        String name = type.getSimpleName();
+        int lambda = name.indexOf("$$Lambda");
+        if (lambda > 0) {
+            return name.substring(0, lambda);
+        }
+        return name.isEmpty() ? type.getName() : name;
+    }
+
+    /**
+     * Ends the queue or retry wait the delivery was in when its attempt started
+     */
+    private static void commitWaitEvents(PendingDelivery delivery) {
+        QueueWaitEvent queueWait = delivery.queueWait;
+        if (queueWait != null) {
+            delivery.queueWait = null;
+            queueWait.end();
+            if (queueWait.shouldCommit()) {
+                queueWait.channel = delivery.channelId;
+                queueWait.templateType = delivery.message.getTemplateType();
+                queueWait.severity = delivery.message.getSeverity().name();
+                queueWait.commit();
+            }
+        }
+        RetryWaitEvent retryWait = delivery.retryWait;
+        if (retryWait != null) {
+            delivery.retryWait = null;
+            retryWait.end();
+            if (retryWait.shouldCommit()) {
+                retryWait.attempt = delivery.attempts;
+                retryWait.commit();
+            }
+        }
+    }
+
+    private static RetryWaitEvent startRetryWait(PendingDelivery delivery, SlackException failure) {
+        RetryWaitEvent event = RetryWaitEvent.start();
+        if (event != null) {
+            event.channel = delivery.channelId;
+            event.templateType = delivery.message.getTemplateType();
+            event.reason = failureKindOf(failure);
+        }
+        return event;
+    }
+
+    private void commitAttemptEvent(HttpAttemptEvent event, PendingDelivery delivery,
+                                    TransportResponse transportResponse, SlackException failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.channel = delivery.channelId;
+            event.templateType = delivery.message.getTemplateType();
+            event.method = methodOf(delivery);
+            event.attempt = delivery.attempts;
+            event.payloadBytes = delivery.payload.size();
+            event.statusCode = transportResponse != null ? transportResponse.getStatusCode() : 0;
+            event.outcome = failure == null ? "ok" : failureKindOf(failure);
+            event.commit();
+        }
+    }
+
+    private static SlackCircuitOpenException circuitOpen() {
+        return new SlackCircuitOpenException("Circuit breaker is open, Slack is considered unavailable");
+    }
+
+    private static SlackClientClosedException clientClosed() {
+        return new SlackClientClosedException("Slack client is shut down");
+    }
+
+    private void onAttemptFailed(PendingDelivery delivery, SlackException failure) {
+        delivery.lastFailure = failure;
+        
+        if (!SlackErrorClassifier.isRetryable(failure)) {
+            LOGGER.warning("Permanent Slack error, not retrying: " + failure.getMessage());
+            delivery.result.completeExceptionally(failure);
+            return;
+        }
+        
+        if (delivery.attempts >= config.getRetryAttempts()) {
+            delivery.result.completeExceptionally(new SlackException(
+                    "Failed to send message after " + config.getRetryAttempts() + " attempts",
+                    failure.getErrorCode(), failure.getHttpStatusCode(), failure));
+            return;
+        }
+        
+        if (failure instanceof SlackRateLimitedException) {
+            // Pause the bucket for everyone; the retry and any queued sends resume when it reopens
+            long retryAfterMs = ((SlackRateLimitedException) failure).getRetryAfterMs();
+            LOGGER.warning("Rate limited by Slack on " + delivery.channelId + ", pausing for " + retryAfterMs + "ms");
+            rateLimiter.pauseChannel(methodOf(delivery), rateKeyOf(delivery), TimeUnit.MILLISECONDS.toNanos(retryAfterMs));
+            if (!fitsBeforeDeadline(delivery, retryAfterMs)) {
+                outboundQueue.expire(delivery, "Rate limit pause outlasts the delivery deadline");
+                return;
+            }
+            if (abandonedByShutdown(delivery, TimeUnit.MILLISECONDS.toNanos(retryAfterMs))) {
+                return;
+            }
+            delivery.retryWait = startRetryWait(delivery, failure);
+            admit(delivery);
+            return;
+        }
+        
+        if (!retryBudget.tryAcquireRetry()) {
+            LOGGER.warning("Retry budget exhausted, giving up after attempt " + delivery.attempts);
+            delivery.result.completeExceptionally(new SlackException(
+                    "Retry budget exhausted after " + delivery.attempts + " attempts",
+                    failure.getErrorCode(), failure.getHttpStatusCode(), failure));
+            return;
+        }
+        
+        long delayMs = backoff.delayMs(delivery.attempts);
+        if (!fitsBeforeDeadline(delivery, delayMs)) {
+            outboundQueue.expire(delivery, "No time left for another attempt before the delivery deadline");
+            return;
+        }
+        if (abandonedByShutdown(delivery, TimeUnit.MILLISECONDS.toNanos(delayMs))) {
+            return;
+        }
+        LOGGER.warning("Failed to send message, retrying in " + delayMs + "ms");
+        delivery.retryWait = startRetryWait(delivery, failure);
+        schedule(delivery, () -> admit(delivery), TimeUnit.MILLISECONDS.toNanos(delayMs));
+    }
+
+    /**
+     * Waits for the channel's rate-limit permit without blocking, then for the workspace-wide one
+     */
+    private void admit(PendingDelivery delivery) {
+        if (delivery.result.isDone()) {
+            return;
+        }
+        
+        long waitNanos = rateLimiter.reserveChannel(methodOf(delivery), rateKeyOf(delivery));
+        if (waitNanos >= delivery.remainingNanos()) {
+            outboundQueue.expire(delivery, "Rate limit wait outlasts the delivery deadline");
+            return;
+        }
+        if (waitNanos > 0 && abandonedByShutdown(delivery, waitNanos)) {
+            return;
+        }
+        if (waitNanos > 0) {
+            LOGGER.fine(() -> "Rate limit reached for " + delivery.channelId + ", holding message for "
+                    + TimeUnit.NANOSECONDS.toMillis(waitNanos) + "ms");
+            schedule(delivery, () -> admitMethod(delivery), waitNanos);
+        } else {
+            admitMethod(delivery);
+        }
+    }
+
+    private void admitMethod(PendingDelivery delivery) {
+        String method = methodOf(delivery);
+        if (rateLimiter.pausedNanos(method, rateKeyOf(delivery)) > 0) {
+            // A Retry-After pause began after the channel permit was reserved
+            admit(delivery);
+            return;
+        }
+        
+        // Webhooks are limited per URL only, they share no workspace-wide method limit
+        long waitNanos = delivery.webhookUri != null ? 0L : rateLimiter.reserveMethod(method);
+        if (waitNanos >= delivery.remainingNanos()) {
+            outboundQueue.expire(delivery, "Rate limit wait outlasts the delivery deadline");
+            return;
+        }
+        if (waitNanos > 0 && abandonedByShutdown(delivery, waitNanos)) {
+            return;
+        }
+        Severity severity = delivery.message.getSeverity();
+        if (waitNanos > 0) {
+            schedule(delivery, () -> dispatcher.submit(() -> attempt(delivery), severity), waitNanos);
+        } else {
+            dispatcher.submit(() -> attempt(delivery), severity);
+        }
+    }
+
+    private void schedule(PendingDelivery delivery, Runnable task, long delayNanos) {
+        delivery.scheduledAttempt = SlackExecutors.scheduler().schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+        if (delivery.result.isDone()) {
+            delivery.scheduledAttempt.cancel(false);
+        }
+    }
+
+    private CompletableFuture<TransportResponse> performRequest(PendingDelivery delivery) {
+        // Encode once, retries resend the same bytes
+        if (delivery.payload == null) {
+            delivery.payload = encode(delivery);
+        }
+        
+        // Hand the request to the configured transport; webhooks carry their credential in the URL
+        TransportRequest request = delivery.webhookUri != null
+                ? new TransportRequest(delivery.webhookUri, null, delivery.channelId, delivery.payload,
+                        attemptTimeoutMs(delivery))
+                : new TransportRequest(delivery.updateTs != null ? updateUri : apiUri, config.getBotToken(),
+                        delivery.channelId, delivery.payload, attemptTimeoutMs(delivery));
+        return transport.send(request);
+    }
+
+    /**
+     * Returns the timeout of the current attempt
+     * Under a deadline the remaining time is split evenly over the attempts left, so a slow
+     * first attempt cannot use up the whole budget
+     */
+    private int attemptTimeoutMs(PendingDelivery delivery) {
+        if (delivery.deadline == PendingDelivery.NO_DEADLINE) {
+            return config.getTimeoutMs();
+        }
+        long remainingMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(delivery.remainingNanos()));
+        int attemptsLeft = Math.max(1, config.getRetryAttempts() - delivery.attempts + 1);
+        long share = Math.max(remainingMs / attemptsLeft, Math.min(remainingMs, MIN_ATTEMPT_TIMEOUT_MS));
+        return (int) Math.min(config.getTimeoutMs(), share);
+    }
+
+    /**
+     * Returns true if an attempt of useful length still fits after waiting the given time
+     */
+    private static boolean fitsBeforeDeadline(PendingDelivery delivery, long waitMs) {
+        return delivery.deadline == PendingDelivery.NO_DEADLINE
+                || TimeUnit.MILLISECONDS.toNanos(waitMs + MIN_ATTEMPT_TIMEOUT_MS) < delivery.remainingNanos();
+    }
+
+    private SlackPayload encode(PendingDelivery delivery) {
+        long startedAt = System.nanoTime();
+        SerializationEvent event = SerializationEvent.start();
+        SlackPayload payload = encodeRequest(delivery);
+        metrics.recordLatency(SlackMetrics.Phase.SERIALIZE, System.nanoTime() - startedAt);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.channel = delivery.channelId;
+                event.templateType = delivery.message.getTemplateType();
+                event.payloadBytes = payload.size();
+                event.commit();
             }
-            return response.toString();
         }
+        return payload;
+    }
+
+    private static SlackPayload encodeRequest(PendingDelivery delivery) {
+        SlackRequest slackRequest = new SlackRequest();
+        // An incoming webhook posts to its own channel
+        if (delivery.webhookUri == null) {
+            slackRequest.setChannel(delivery.channelId);
+        }
+        slackRequest.setTs(delivery.updateTs);
+        if (delivery.updateTs == null) {
+            slackRequest.setThreadTs(delivery.message.getThreadTs());
+        }
+        slackRequest.setText("Automated Notification");
+        slackRequest.setBlocks(delivery.message.getBlocks());
+        SlackPayload payload = SlackPayload.encode(slackRequest);
+        
+        LOGGER.fine(() -> "Slack request payload: " + payload);
+        return payload;
+    }
+
+    private SlackResponse handleResponse(TransportResponse transportResponse) throws SlackException {
+        int responseCode = transportResponse.getStatusCode();
+        SlackResponse response = transportResponse.getResponse();
+        
+        LOGGER.info("Slack API Response Code: " + responseCode);
+        LOGGER.info("Slack API Response: " + response);
+        
+        String error = response != null ? response.getError() : null;
+        if (responseCode == HTTP_TOO_MANY_REQUESTS || RATE_LIMITED_ERROR.equals(error)) {
+            long retryAfterMs = parseRetryAfterMs(transportResponse.getHeader("Retry-After"));
+            throw new SlackRateLimitedException("Rate limited by Slack, retry after " + retryAfterMs + "ms",
+                    error != null ? error : RATE_LIMITED_ERROR, responseCode, retryAfterMs);
+        }
+        
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            LOGGER.warning("HTTP error: " + responseCode + " - " + response);
+            throw new SlackException("HTTP error: " + responseCode, error, responseCode);
+        }
+        
+        if (response == null || !response.isOk()) {
+            LOGGER.warning("Slack API returned error: " + (error != null ? error : "Unknown error"));
+            throw new SlackException("Slack API returned error: " + (error != null ? error : "Unknown error"),
+                    error, responseCode);
+        }
+        return response;
+    }
+
+    /**
+     * Parses a Retry-After header given in seconds or as an HTTP date
+     * Falls back to the configured retry delay when the header is missing or malformed
+     */
+    private long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter != null) {
+            String value = retryAfter.trim();
+            try {
+                return Math.max(0L, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return Math.max(0L, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+                } catch (DateTimeParseException ignored) {
+                    LOGGER.warning("Ignoring malformed Retry-After header: " + value);
+                }
+            }
+        }
+        return config.getRetryDelayMs();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws SlackException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SlackException("Interrupted while sending message", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SlackException) {
+                throw (SlackException) e.getCause();
+            }
+            throw new SlackException("Failed to send message", e.getCause());
+        }
+    }
+
+    private static MessageSpool openSpool(SlackConfig config) {
+        if (config.getSpoolDirectory() == null) {
+            return null;
+        }
+        try {
+            return MessageSpool.open(config.getSpoolDirectory(), config.getSpoolSegmentBytes(),
+                    config.getSpoolMaxSegments());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open message spool in " + config.getSpoolDirectory(), e);
+        }
+    }
+
+    private static ThreadIndex openThreadIndex(SlackConfig config) {
+        if (config.getThreadIndexFile() == null) {
+            return ThreadIndex.inMemory(config.getThreadIndexCapacity(), config.getThreadTtlMs());
+        }
+        try {
+            return ThreadIndex.open(config.getThreadIndexFile(), config.getThreadIndexCapacity(),
+                    config.getThreadTtlMs());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open thread index " + config.getThreadIndexFile(), e);
+        }
+    }
+
+    private static SlackTransport createTransport(SlackConfig config, Executor executor) {
+        if (config.getTransport() != null) {
+            return config.getTransport();
+        }
+        return SlackHttpTransport.builder()
+                .maxConnections(config.getMaxConnections())
+                .http2Enabled(config.isHttp2Enabled())
+                .connectTimeoutMs(config.getTimeoutMs())
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Returns the rate-limit key of the API method a delivery calls
+     */
+    private String methodOf(PendingDelivery delivery) {
+        if (delivery.webhookUri != null) {
+            return WEBHOOK_METHOD;
+        }
+        return delivery.updateTs != null ? UPDATE_METHOD : apiMethod;
+    }
+
+    /**
+     * Returns the key of the per-channel rate limit: the channel, or the webhook URL for webhooks
+     */
+    private static String rateKeyOf(PendingDelivery delivery) {
+        return delivery.webhookUri != null ? delivery.webhookUri.toString() : delivery.channelId;
+    }
+
+    /**
+     * Returns the Web API method name (e.g. chat.postMessage) used as the rate-limit key
+     */
+    private static String apiMethodOf(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty()) {
+            return uri.toString();
+        }
+        return path.substring(path.lastIndexOf('/') + 1);
     }
 
     private void validateInputs(SlackMessage message, String channelId) throws SlackException {
@@ -218,8 +1319,9 @@ public class SlackClient {
         if (channelId == null || channelId.trim().isEmpty()) {
             throw new SlackException("Channel ID cannot be null or empty");
         }
-        if (config.getBotToken() == null || config.getBotToken().trim().isEmpty()) {
+        if (!webhooks.containsKey(channelId)
+                && (config.getBotToken() == null || config.getBotToken().trim().isEmpty())) {
             throw new SlackException("Bot token is not configured");
         }
     }
-} 
\ No newline at end of file
+}
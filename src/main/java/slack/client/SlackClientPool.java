@@ -0,0 +1,265 @@
+package slack.client;
+
+import slack.config.DispatcherMode;
+import slack.config.SlackConfig;
+import slack.exception.SlackException;
+import slack.message.SlackMessage;
+import slack.model.SlackResponse;
+import slack.transport.SlackHttpTransport;
+import slack.transport.SlackTransport;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Clients for several Slack workspaces that share one transport and one set of dispatcher threads
+ * Each workspace keeps its own rate-limit buckets, retry budget, circuit breaker, outbound queue and
+ * statistics, and may only have a bounded number of requests in flight, so a noisy workspace cannot
+ * take every connection or thread from the others
+ * The transport and dispatcher settings of the workspace configurations are ignored; those of the pool apply
+ */
+public class SlackClientPool implements AutoCloseable {
+    private final SendDispatcher threads;
+    private final long shutdownTimeoutMs;
+    private final SlackTransport transport;
+    private final Map<String, SlackClient> clientsByWorkspace;
+    private final Map<String, SlackClient> clientsByToken;
+
+    private SlackClientPool(Builder builder) {
+        // Never at its cap, so attempts never wait on it and aging does not apply
+        this.threads = new SendDispatcher(builder.dispatcherMode, builder.dispatcherPoolSize,
+                Integer.MAX_VALUE, 0);
+        this.shutdownTimeoutMs = builder.shutdownTimeoutMs;
+        this.transport = builder.transport != null ? builder.transport : httpTransport(builder, threads.executor());
+
+        Map<String, SlackClient> byWorkspace = new LinkedHashMap<>();
+        Map<String, SlackClient> byToken = new HashMap<>();
+        builder.workspaces.forEach((workspace, config) -> {
+            SlackClient client = new SlackClient(config,
+                    new SendDispatcher(threads, builder.maxInFlightPerWorkspace, config.getPriorityAgingMs()),
+                    transport);
+            byWorkspace.put(workspace, client);
+            if (config.getBotToken() != null) {
+                byToken.put(config.getBotToken(), client);
+            }
+        });
+        this.clientsByWorkspace = Collections.unmodifiableMap(byWorkspace);
+        this.clientsByToken = byToken;
+    }
+
+    /**
+     * Creates the shared HTTP transport, completing responses on the pool's threads when it has any
+     * In DIRECT mode the pool owns no threads, so responses complete on the HttpClient's default executor
+     */
+    private static SlackTransport httpTransport(Builder builder, Executor executor) {
+        SlackHttpTransport.Builder transport = SlackHttpTransport.builder()
+                .maxConnections(builder.maxConnections)
+                .http2Enabled(builder.http2Enabled)
+                .connectTimeoutMs(builder.connectTimeoutMs);
+        if (executor != null) {
+            transport.executor(executor);
+        }
+        return transport.build();
+    }
+
+    /**
+     * Returns the client of a workspace
+     *
+     * @throws IllegalArgumentException if the workspace is not part of the pool
+     */
+    public SlackClient client(String workspace) {
+        SlackClient client = clientsByWorkspace.get(workspace);
+        if (client == null) {
+            throw new IllegalArgumentException("Unknown Slack workspace: " + workspace);
+        }
+        return client;
+    }
+
+    /**
+     * Returns the client using a bot token
+     *
+     * @throws IllegalArgumentException if no workspace of the pool uses the token
+     */
+    public SlackClient clientForToken(String botToken) {
+        SlackClient client = clientsByToken.get(botToken);
+        if (client == null) {
+            throw new IllegalArgumentException("No Slack workspace uses the given bot token");
+        }
+        return client;
+    }
+
+    /**
+     * Sends a message to a channel of a workspace without blocking the caller
+     * Fails with SlackException if the workspace is not part of the pool
+     */
+    public CompletableFuture<SlackResponse> sendMessageAsync(String workspace, SlackMessage message,
+                                                             String channelId) {
+        SlackClient client = clientsByWorkspace.get(workspace);
+        if (client == null) {
+            return CompletableFuture.failedFuture(new SlackException("Unknown Slack workspace: " + workspace));
+        }
+        return client.sendMessageAsync(message, channelId);
+    }
+
+    /**
+     * Sends a message to the default channel of a workspace, blocking until it is delivered
+     */
+    public boolean sendMessage(String workspace, SlackMessage message) throws SlackException {
+        SlackClient client = clientsByWorkspace.get(workspace);
+        if (client == null) {
+            throw new SlackException("Unknown Slack workspace: " + workspace);
+        }
+        return client.sendMessage(message);
+    }
+
+    /**
+     * Returns the workspace names in the order they were added
+     */
+    public Set<String> getWorkspaces() {
+        return clientsByWorkspace.keySet();
+    }
+
+    /**
+     * Returns the transport shared by all workspaces
+     */
+    public SlackTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Shuts every workspace down, letting messages drain for the pool's shutdown timeout
+     * See {@link #shutdown(Duration)}
+     */
+    @Override
+    public void close() {
+        shutdown(Duration.ofMillis(shutdownTimeoutMs));
+    }
+
+    /**
+     * Stops every workspace from accepting messages, then lets them all drain within one shared timeout
+     * as described for {@link SlackClient#shutdown(Duration)}, and stops the shared threads
+     *
+     * @return the messages that were neither delivered nor spooled, by workspace
+     */
+    public Map<String, List<SlackMessage>> shutdown(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Shutdown timeout must not be negative");
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        clientsByWorkspace.values().forEach(client -> client.beginShutdown(deadline));
+        Map<String, List<SlackMessage>> unsaved = new LinkedHashMap<>();
+        clientsByWorkspace.forEach((workspace, client) -> unsaved.put(workspace, client.awaitShutdown(deadline)));
+        threads.shutdown();
+        return unsaved;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final Map<String, SlackConfig> workspaces = new LinkedHashMap<>();
+        private int maxConnections = 16;
+        private boolean http2Enabled = true;
+        private int connectTimeoutMs = 30000;
+        private SlackTransport transport;
+        private DispatcherMode dispatcherMode = DispatcherMode.DIRECT;
+        private int dispatcherPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        private int maxInFlightPerWorkspace = 4;
+        private long shutdownTimeoutMs = 10000;
+
+        /**
+         * Adds a workspace under a name used for routing
+         */
+        public Builder workspace(String workspace, SlackConfig config) {
+            this.workspaces.put(workspace, config);
+            return this;
+        }
+
+        /**
+         * Sets the number of pooled connections shared by all workspaces, 16 by default
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder http2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        public Builder connectTimeoutMs(int connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Shares a custom transport instead of the default HTTP one
+         */
+        public Builder transport(SlackTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets where attempts of all workspaces run, DIRECT by default
+         * In DIRECT mode the default transport completes responses on the HttpClient's own executor
+         */
+        public Builder dispatcherMode(DispatcherMode dispatcherMode) {
+            this.dispatcherMode = dispatcherMode;
+            return this;
+        }
+
+        public Builder dispatcherPoolSize(int dispatcherPoolSize) {
+            this.dispatcherPoolSize = dispatcherPoolSize;
+            return this;
+        }
+
+        /**
+         * Caps the requests one workspace may have in flight, 4 by default
+         * Keep it below the connection count so a busy workspace always leaves connections for the others
+         */
+        public Builder maxInFlightPerWorkspace(int maxInFlightPerWorkspace) {
+            this.maxInFlightPerWorkspace = maxInFlightPerWorkspace;
+            return this;
+        }
+
+        /**
+         * Sets how long close() lets the workspaces drain, 10 seconds by default
+         */
+        public Builder shutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+            return this;
+        }
+
+        public SlackClientPool build() {
+            if (workspaces.isEmpty()) {
+                throw new IllegalArgumentException("At least one workspace is required");
+            }
+            if (workspaces.containsKey(null) || workspaces.containsValue(null)) {
+                throw new IllegalArgumentException("Workspace names and configurations must not be null");
+            }
+            if (maxConnections <= 0 || connectTimeoutMs <= 0) {
+                throw new IllegalArgumentException("Max connections and connect timeout must be positive");
+            }
+            if (dispatcherMode == null || dispatcherPoolSize <= 0) {
+                throw new IllegalArgumentException("Dispatcher mode and a positive pool size are required");
+            }
+            if (maxInFlightPerWorkspace <= 0) {
+                throw new IllegalArgumentException("Max in-flight requests per workspace must be positive");
+            }
+            if (shutdownTimeoutMs < 0) {
+                throw new IllegalArgumentException("Shutdown timeout must not be negative");
+            }
+            return new SlackClientPool(this);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package slack.client;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by the client for dispatching sends and non-blocking retries
+ * Threads are daemons so an idle client never keeps the JVM alive
+ */
+final class SlackExecutors {
+    private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    private SlackExecutors() {
+    }
+
+    /**
+     * Returns the scheduler that fires delayed retry attempts
+     */
+    static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread per task
+     * Looked up reflectively so the library still runs on JDK 17, where this returns null
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a fixed-size pool of daemon platform threads
+     */
+    static ExecutorService newPlatformPool(int size) {
+        return Executors.newFixedThreadPool(size, daemonThreads("slack-dispatcher"));
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("slack-scheduler"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package slack.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the rendering of a {@link slack.template.MessageTemplate} into a message
+ */
+@Name("slack.TemplateRender")
+@Label("Slack Template Render")
+@Category("Slack")
+@Description("Rendering of a message template")
+@StackTrace(false)
+class TemplateRenderEvent extends jdk.jfr.Event {
+    @Label("Template Type")
+    String templateType;
+
+    @Label("Blocks")
+    int blocks;
+
+    /**
+     * Returns a started event, or null when the event is not being recorded
+     */
+    static TemplateRenderEvent start() {
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,41 @@
+package slack.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The first message of a correlation thread while it is on its way
+ * Later messages with the same key wait here for its ts and are released in arrival order
+ */
+class ThreadOpening {
+    // Guarded by this
+    private final List<Runnable> followers = new ArrayList<>();
+    private boolean finished;
+
+    /**
+     * Queues a follower to run once the opening message has finished
+     * Returns false if it already has, in which case the follower is not kept
+     */
+    synchronized boolean await(Runnable follower) {
+        if (finished) {
+            return false;
+        }
+        followers.add(follower);
+        return true;
+    }
+
+    /**
+     * Marks the opening message as posted or failed and runs the waiting followers in arrival order
+     */
+    void finish() {
+        List<Runnable> waiting;
+        synchronized (this) {
+            finished = true;
+            waiting = new ArrayList<>(followers);
+            followers.clear();
+        }
+        for (Runnable follower : waiting) {
+            follower.run();
+        }
+    }
+}
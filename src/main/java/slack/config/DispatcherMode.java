@@ -0,0 +1,22 @@
+package slack.config;
+
+/**
+ * Controls which threads run the work of each send
+ */
+public enum DispatcherMode {
+    /**
+     * Sends start on the calling thread and complete on the HTTP client's threads
+     */
+    DIRECT,
+
+    /**
+     * Each send runs on its own virtual thread when the JVM supports them (JDK 21+)
+     * Falls back to a bounded platform thread pool on older runtimes
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * Sends run on a bounded pool of platform threads
+     */
+    PLATFORM_POOL
+}
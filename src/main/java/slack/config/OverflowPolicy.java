@@ -0,0 +1,33 @@
+package slack.config;
+
+/**
+ * Decides what happens to a new message when the outbound queue is full
+ */
+public enum OverflowPolicy {
+    /**
+     * The sender waits for room up to the configured offer timeout, then the message is rejected
+     */
+    BLOCK,
+
+    /**
+     * The new message is rejected at once
+     */
+    REJECT,
+
+    /**
+     * The oldest message that has not been sent yet is dropped to make room
+     */
+    DROP_OLDEST,
+
+    /**
+     * The oldest unsent message of the lowest severity is dropped to make room
+     * The new message is rejected instead when everything queued is more important
+     */
+    DROP_LOWEST_SEVERITY,
+
+    /**
+     * The new message is folded into a per-channel summary that is sent once there is room again
+     * The summary lists the folded messages by template type and title, with their count and highest severity
+     */
+    COALESCE
+}
@@ -1,30 +1,125 @@
 package slack.config;
 
+import slack.ratelimit.RateLimit;
+import slack.transport.SlackTransport;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Slack integration configuration class
  * This class holds all necessary configuration for Slack client
  */
 public class SlackConfig {
     private final String botToken;
+    private final Map<String, String> webhookUrls;
     private final String defaultChannelId;
     private final String apiUrl;
     private final int retryAttempts;
     private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+    private final double retryBudgetRatio;
+    private final double minRetriesPerSecond;
     private final int timeoutMs;
+    private final int maxConnections;
+    private final boolean http2Enabled;
+    private final SlackTransport transport;
+    private final DispatcherMode dispatcherMode;
+    private final int dispatcherPoolSize;
+    private final int maxInFlightRequests;
+    private final boolean orderedDelivery;
+    private final int maxQueuedMessages;
+    private final long maxQueuedBytes;
+    private final OverflowPolicy overflowPolicy;
+    private final long queueOfferTimeoutMs;
+    private final double loadSheddingThreshold;
+    private final long priorityAgingMs;
+    private final long shutdownTimeoutMs;
+    private final Path spoolDirectory;
+    private final int spoolSegmentBytes;
+    private final int spoolMaxSegments;
+    private final long dedupWindowMs;
+    private final int dedupCapacity;
+    private final boolean digestEnabled;
+    private final long digestIntervalMs;
+    private final int digestMaxMessages;
+    private final long liveUpdateIntervalMs;
+    private final long defaultMessageTtlMs;
+    private final Path threadIndexFile;
+    private final int threadIndexCapacity;
+    private final long threadTtlMs;
+    private final boolean rateLimitEnabled;
+    private final RateLimit channelRateLimit;
+    private final RateLimit methodRateLimit;
+    private final boolean circuitBreakerEnabled;
+    private final double circuitFailureRateThreshold;
+    private final long circuitSlowCallThresholdMs;
+    private final int circuitMinimumCalls;
+    private final long circuitOpenDurationMs;
+    private final int circuitHalfOpenProbes;
 
     private SlackConfig(Builder builder) {
         this.botToken = builder.botToken;
+        this.webhookUrls = Collections.unmodifiableMap(new LinkedHashMap<>(builder.webhookUrls));
         this.defaultChannelId = builder.defaultChannelId;
         this.apiUrl = builder.apiUrl;
         this.retryAttempts = builder.retryAttempts;
         this.retryDelayMs = builder.retryDelayMs;
+        this.maxRetryDelayMs = builder.maxRetryDelayMs;
+        this.retryBudgetRatio = builder.retryBudgetRatio;
+        this.minRetriesPerSecond = builder.minRetriesPerSecond;
         this.timeoutMs = builder.timeoutMs;
+        this.maxConnections = builder.maxConnections;
+        this.http2Enabled = builder.http2Enabled;
+        this.transport = builder.transport;
+        this.dispatcherMode = builder.dispatcherMode;
+        this.dispatcherPoolSize = builder.dispatcherPoolSize;
+        this.maxInFlightRequests = builder.maxInFlightRequests;
+        this.orderedDelivery = builder.orderedDelivery;
+        this.maxQueuedMessages = builder.maxQueuedMessages;
+        this.maxQueuedBytes = builder.maxQueuedBytes;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.queueOfferTimeoutMs = builder.queueOfferTimeoutMs;
+        this.loadSheddingThreshold = builder.loadSheddingThreshold;
+        this.priorityAgingMs = builder.priorityAgingMs;
+        this.shutdownTimeoutMs = builder.shutdownTimeoutMs;
+        this.spoolDirectory = builder.spoolDirectory;
+        this.spoolSegmentBytes = builder.spoolSegmentBytes;
+        this.spoolMaxSegments = builder.spoolMaxSegments;
+        this.dedupWindowMs = builder.dedupWindowMs;
+        this.dedupCapacity = builder.dedupCapacity;
+        this.digestEnabled = builder.digestEnabled;
+        this.digestIntervalMs = builder.digestIntervalMs;
+        this.digestMaxMessages = builder.digestMaxMessages;
+        this.liveUpdateIntervalMs = builder.liveUpdateIntervalMs;
+        this.defaultMessageTtlMs = builder.defaultMessageTtlMs;
+        this.threadIndexFile = builder.threadIndexFile;
+        this.threadIndexCapacity = builder.threadIndexCapacity;
+        this.threadTtlMs = builder.threadTtlMs;
+        this.rateLimitEnabled = builder.rateLimitEnabled;
+        this.channelRateLimit = builder.channelRateLimit;
+        this.methodRateLimit = builder.methodRateLimit;
+        this.circuitBreakerEnabled = builder.circuitBreakerEnabled;
+        this.circuitFailureRateThreshold = builder.circuitFailureRateThreshold;
+        this.circuitSlowCallThresholdMs = builder.circuitSlowCallThresholdMs;
+        this.circuitMinimumCalls = builder.circuitMinimumCalls;
+        this.circuitOpenDurationMs = builder.circuitOpenDurationMs;
+        this.circuitHalfOpenProbes = builder.circuitHalfOpenProbes;
     }
 
     public String getBotToken() {
         return botToken;
     }
 
+    /**
+     * Returns the incoming webhook URL of each channel delivered through a webhook
+     */
+    public Map<String, String> getWebhookUrls() {
+        return webhookUrls;
+    }
+
     public String getDefaultChannelId() {
         return defaultChannelId;
     }
@@ -37,31 +132,272 @@ public class SlackConfig {
         return retryAttempts;
     }
 
+    /**
+     * Returns the base delay of the exponential backoff between retries
+     */
     public long getRetryDelayMs() {
         return retryDelayMs;
     }
 
+    public long getMaxRetryDelayMs() {
+        return maxRetryDelayMs;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    public double getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
     public int getTimeoutMs() {
         return timeoutMs;
     }
 
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * Returns the transport to send through, or null if the client should create its own HTTP transport
+     */
+    public SlackTransport getTransport() {
+        return transport;
+    }
+
+    public DispatcherMode getDispatcherMode() {
+        return dispatcherMode;
+    }
+
+    public int getDispatcherPoolSize() {
+        return dispatcherPoolSize;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    public boolean isOrderedDelivery() {
+        return orderedDelivery;
+    }
+
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    public long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getQueueOfferTimeoutMs() {
+        return queueOfferTimeoutMs;
+    }
+
+    /**
+     * Returns the outbound queue fill ratio from which LOW messages are shed, 0 when shedding is disabled
+     */
+    public double getLoadSheddingThreshold() {
+        return loadSheddingThreshold;
+    }
+
+    /**
+     * Returns how long a waiting attempt takes to rank one severity level higher, 0 when attempts never age
+     */
+    public long getPriorityAgingMs() {
+        return priorityAgingMs;
+    }
+
+    /**
+     * Returns how long close() lets queued and in-flight messages drain
+     */
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    /**
+     * Returns the directory of the durable message spool, or null when spooling is disabled
+     */
+    public Path getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    public int getSpoolSegmentBytes() {
+        return spoolSegmentBytes;
+    }
+
+    public int getSpoolMaxSegments() {
+        return spoolMaxSegments;
+    }
+
+    /**
+     * Returns how long identical sends are suppressed, 0 when deduplication is disabled
+     */
+    public long getDedupWindowMs() {
+        return dedupWindowMs;
+    }
+
+    public int getDedupCapacity() {
+        return dedupCapacity;
+    }
+
+    public boolean isDigestEnabled() {
+        return digestEnabled;
+    }
+
+    public long getDigestIntervalMs() {
+        return digestIntervalMs;
+    }
+
+    public int getDigestMaxMessages() {
+        return digestMaxMessages;
+    }
+
+    /**
+     * Returns the minimum time between two chat.update calls for the same live message
+     */
+    public long getLiveUpdateIntervalMs() {
+        return liveUpdateIntervalMs;
+    }
+
+    /**
+     * Returns the time-to-live of messages that set none themselves, 0 when they never expire
+     */
+    public long getDefaultMessageTtlMs() {
+        return defaultMessageTtlMs;
+    }
+
+    /**
+     * Returns the file persisting correlation threads, or null to keep them in memory only
+     */
+    public Path getThreadIndexFile() {
+        return threadIndexFile;
+    }
+
+    public int getThreadIndexCapacity() {
+        return threadIndexCapacity;
+    }
+
+    public long getThreadTtlMs() {
+        return threadTtlMs;
+    }
+
+    public boolean isRateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+
+    /**
+     * Returns the limit applied per API method and channel, or null for no channel limit
+     */
+    public RateLimit getChannelRateLimit() {
+        return channelRateLimit;
+    }
+
+    /**
+     * Returns the limit applied per API method across all channels, or null for no method limit
+     */
+    public RateLimit getMethodRateLimit() {
+        return methodRateLimit;
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    public double getCircuitFailureRateThreshold() {
+        return circuitFailureRateThreshold;
+    }
+
+    public long getCircuitSlowCallThresholdMs() {
+        return circuitSlowCallThresholdMs;
+    }
+
+    public int getCircuitMinimumCalls() {
+        return circuitMinimumCalls;
+    }
+
+    public long getCircuitOpenDurationMs() {
+        return circuitOpenDurationMs;
+    }
+
+    public int getCircuitHalfOpenProbes() {
+        return circuitHalfOpenProbes;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
     public static class Builder {
         private String botToken;
+        private final Map<String, String> webhookUrls = new LinkedHashMap<>();
         private String defaultChannelId;
         private String apiUrl = "https://slack.com/api/chat.postMessage";
         private int retryAttempts = 3;
         private long retryDelayMs = 1000;
+        private long maxRetryDelayMs = 30000;
+        private double retryBudgetRatio = 0.2;
+        private double minRetriesPerSecond = 10;
         private int timeoutMs = 30000;
+        private int maxConnections = 16;
+        private boolean http2Enabled = true;
+        private SlackTransport transport;
+        private DispatcherMode dispatcherMode = DispatcherMode.DIRECT;
+        private int dispatcherPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        private int maxInFlightRequests = 1024;
+        private boolean orderedDelivery = true;
+        private int maxQueuedMessages = 10000;
+        private long maxQueuedBytes = 64L * 1024 * 1024;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private long queueOfferTimeoutMs = 10000;
+        private double loadSheddingThreshold = 0.8;
+        private long priorityAgingMs = 5000;
+        private long shutdownTimeoutMs = 10000;
+        private Path spoolDirectory;
+        private int spoolSegmentBytes = 4 * 1024 * 1024;
+        private int spoolMaxSegments = 16;
+        private long dedupWindowMs;
+        private int dedupCapacity = 65536;
+        private boolean digestEnabled;
+        private long digestIntervalMs = 60000;
+        private int digestMaxMessages = 20;
+        private long liveUpdateIntervalMs = 1000;
+        private long defaultMessageTtlMs;
+        private Path threadIndexFile;
+        private int threadIndexCapacity = 16384;
+        private long threadTtlMs = 24L * 60 * 60 * 1000;
+        private boolean rateLimitEnabled = true;
+        private RateLimit channelRateLimit = RateLimit.perSecond(1, 3);
+        private RateLimit methodRateLimit = RateLimit.perSecond(20, 20);
+        private boolean circuitBreakerEnabled = true;
+        private double circuitFailureRateThreshold = 0.5;
+        private long circuitSlowCallThresholdMs = 10000;
+        private int circuitMinimumCalls = 10;
+        private long circuitOpenDurationMs = 30000;
+        private int circuitHalfOpenProbes = 3;
 
         public Builder botToken(String botToken) {
             this.botToken = botToken;
             return this;
         }
 
+        /**
+         * Delivers messages for the channel through an incoming webhook instead of the Web API
+         * Webhook channels need no bot token and are rate limited per webhook URL
+         */
+        public Builder webhook(String channelId, String webhookUrl) {
+            this.webhookUrls.put(channelId, webhookUrl);
+            return this;
+        }
+
         public Builder defaultChannelId(String defaultChannelId) {
             this.defaultChannelId = defaultChannelId;
             return this;
@@ -82,18 +418,408 @@ public class SlackConfig {
             return this;
         }
 
+        /**
+         * Caps the exponential backoff between retries
+         */
+        public Builder maxRetryDelayMs(long maxRetryDelayMs) {
+            this.maxRetryDelayMs = maxRetryDelayMs;
+            return this;
+        }
+
+        /**
+         * Sets how many retries the client may make per first attempt, 0.2 by default
+         * Keeps a Slack outage from multiplying outbound traffic
+         */
+        public Builder retryBudgetRatio(double retryBudgetRatio) {
+            this.retryBudgetRatio = retryBudgetRatio;
+            return this;
+        }
+
+        /**
+         * Sets the retries per second allowed regardless of the budget ratio, 10 by default
+         */
+        public Builder minRetriesPerSecond(double minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+            return this;
+        }
+
         public Builder timeoutMs(int timeoutMs) {
             this.timeoutMs = timeoutMs;
             return this;
         }
 
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder http2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        /**
+         * Uses an existing transport, e.g. a SlackHttpTransport shared by several clients
+         * or an in-memory transport for tests; maxConnections and http2Enabled are then ignored
+         */
+        public Builder transport(SlackTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Selects which threads run sends, see {@link DispatcherMode}
+         */
+        public Builder dispatcherMode(DispatcherMode dispatcherMode) {
+            this.dispatcherMode = dispatcherMode;
+            return this;
+        }
+
+        /**
+         * Sets the platform pool size used by PLATFORM_POOL and as the VIRTUAL_THREADS fallback
+         */
+        public Builder dispatcherPoolSize(int dispatcherPoolSize) {
+            this.dispatcherPoolSize = dispatcherPoolSize;
+            return this;
+        }
+
+        /**
+         * Caps the number of send attempts in flight at once, further sends wait in a queue
+         */
+        public Builder maxInFlightRequests(int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        /**
+         * Keeps messages to the same channel in send order, whatever their severity, enabled by default
+         * Each channel then has one message in flight at a time; different channels still send in parallel,
+         * and severity decides which channel's next message gets a free in-flight slot
+         */
+        public Builder orderedDelivery(boolean orderedDelivery) {
+            this.orderedDelivery = orderedDelivery;
+            return this;
+        }
+
+        /**
+         * Caps the messages accepted but not yet delivered, 10000 by default
+         */
+        public Builder maxQueuedMessages(int maxQueuedMessages) {
+            this.maxQueuedMessages = maxQueuedMessages;
+            return this;
+        }
+
+        /**
+         * Caps the estimated payload bytes of messages accepted but not yet delivered, 64 MB by default
+         */
+        public Builder maxQueuedBytes(long maxQueuedBytes) {
+            this.maxQueuedBytes = maxQueuedBytes;
+            return this;
+        }
+
+        /**
+         * Selects what happens to new messages while the outbound queue is full, BLOCK by default
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets how long a sender waits for room under the BLOCK policy, 10 seconds by default
+         */
+        public Builder queueOfferTimeoutMs(long queueOfferTimeoutMs) {
+            this.queueOfferTimeoutMs = queueOfferTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Sheds unimportant messages once the outbound queue is this full, 0.8 by default, 0 to disable
+         * Messages given LOW severity explicitly are turned away from this ratio on, explicit MEDIUM and HIGH ones
+         * at evenly spaced higher ratios; CRITICAL and untagged messages are never shed
+         * A full queue always applies the overflow policy, whatever the message's severity
+         */
+        public Builder loadSheddingThreshold(double loadSheddingThreshold) {
+            this.loadSheddingThreshold = loadSheddingThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long an attempt waiting for an in-flight slot takes to rank one severity level higher,
+         * 5 seconds by default; 0 lets more important messages hold back less important ones indefinitely
+         */
+        public Builder priorityAgingMs(long priorityAgingMs) {
+            this.priorityAgingMs = priorityAgingMs;
+            return this;
+        }
+
+        /**
+         * Sets how long close() lets queued and in-flight messages drain before giving up on them,
+         * 10 seconds by default
+         */
+        public Builder shutdownTimeoutMs(long shutdownTimeoutMs) {
+            this.shutdownTimeoutMs = shutdownTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Enables the durable message spool in the given directory, disabled by default
+         * Messages not yet delivered when the process stops are sent again by the next client
+         * opened on the same directory; a directory must only be used by one client at a time
+         * The spool outlives a crashed or killed process, but not an OS crash or power loss, as it never fsyncs
+         */
+        public Builder spoolDirectory(Path spoolDirectory) {
+            this.spoolDirectory = spoolDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the size of each spool segment file, 4 MB by default
+         */
+        public Builder spoolSegmentBytes(int spoolSegmentBytes) {
+            this.spoolSegmentBytes = spoolSegmentBytes;
+            return this;
+        }
+
+        /**
+         * Caps the number of spool segment files, 16 by default
+         * Messages are still sent when the spool is full, just not durably
+         */
+        public Builder spoolMaxSegments(int spoolMaxSegments) {
+            this.spoolMaxSegments = spoolMaxSegments;
+            return this;
+        }
+
+        /**
+         * Suppresses a message identical to one sent to the same channel within the window,
+         * disabled (0) by default
+         * Messages are identified by their idempotency key, or else by a fingerprint of their content
+         * A failed send stops counting only if Slack provably never got it: it was turned away before sending
+         * or Slack answered with an error; after a timeout or I/O error the post may have landed, so it still counts
+         */
+        public Builder dedupWindowMs(long dedupWindowMs) {
+            this.dedupWindowMs = dedupWindowMs;
+            return this;
+        }
+
+        /**
+         * Sets how many keys the deduplication window remembers at most, 65536 by default
+         */
+        public Builder dedupCapacity(int dedupCapacity) {
+            this.dedupCapacity = dedupCapacity;
+            return this;
+        }
+
+        /**
+         * Collects messages marked MEDIUM or LOW per channel into periodic digests, disabled by default
+         * CRITICAL and HIGH messages, messages without an explicit severity and synchronous sends are still sent at once
+         */
+        public Builder digestEnabled(boolean digestEnabled) {
+            this.digestEnabled = digestEnabled;
+            return this;
+        }
+
+        /**
+         * Sets how long a message may wait for its digest, 60 seconds by default
+         */
+        public Builder digestIntervalMs(long digestIntervalMs) {
+            this.digestIntervalMs = digestIntervalMs;
+            return this;
+        }
+
+        /**
+         * Sends a digest early once it holds this many messages, 20 by default
+         */
+        public Builder digestMaxMessages(int digestMaxMessages) {
+            this.digestMaxMessages = digestMaxMessages;
+            return this;
+        }
+
+        /**
+         * Sets the minimum time between two updates of the same live message, 1 second by default
+         * Updates arriving faster are coalesced and only the latest state is sent
+         */
+        public Builder liveUpdateIntervalMs(long liveUpdateIntervalMs) {
+            this.liveUpdateIntervalMs = liveUpdateIntervalMs;
+            return this;
+        }
+
+        /**
+         * Gives up on messages not delivered this long after they were sent, unless they set their own
+         * time-to-live or deadline; 0, the default, lets messages wait and retry without limit
+         */
+        public Builder defaultMessageTtlMs(long defaultMessageTtlMs) {
+            this.defaultMessageTtlMs = defaultMessageTtlMs;
+            return this;
+        }
+
+        /**
+         * Persists the correlation key to thread mapping in this file so threads survive restarts
+         * Without a file the mapping is kept in memory only
+         */
+        public Builder threadIndexFile(Path threadIndexFile) {
+            this.threadIndexFile = threadIndexFile;
+            return this;
+        }
+
+        /**
+         * Sets how many correlation threads are remembered at most, 16384 by default
+         */
+        public Builder threadIndexCapacity(int threadIndexCapacity) {
+            this.threadIndexCapacity = threadIndexCapacity;
+            return this;
+        }
+
+        /**
+         * Sets how long a correlation thread is remembered after its last message, 24 hours by default
+         */
+        public Builder threadTtlMs(long threadTtlMs) {
+            this.threadTtlMs = threadTtlMs;
+            return this;
+        }
+
+        /**
+         * Enables or disables client-side rate limiting, enabled by default
+         */
+        public Builder rateLimitEnabled(boolean rateLimitEnabled) {
+            this.rateLimitEnabled = rateLimitEnabled;
+            return this;
+        }
+
+        /**
+         * Sets the per-channel limit, defaults to Slack's 1 message/second/channel with a burst of 3
+         * Pass null to remove the channel limit
+         */
+        public Builder channelRateLimit(RateLimit channelRateLimit) {
+            this.channelRateLimit = channelRateLimit;
+            return this;
+        }
+
+        /**
+         * Sets the per-method limit shared by all channels, defaults to 20 calls/second
+         * Pass null to remove the method limit
+         */
+        public Builder methodRateLimit(RateLimit methodRateLimit) {
+            this.methodRateLimit = methodRateLimit;
+            return this;
+        }
+
+        /**
+         * Enables or disables the circuit breaker, enabled by default
+         */
+        public Builder circuitBreakerEnabled(boolean circuitBreakerEnabled) {
+            this.circuitBreakerEnabled = circuitBreakerEnabled;
+            return this;
+        }
+
+        /**
+         * Sets the share of failed or slow calls over the last 10 seconds that opens the circuit, 0.5 by default
+         */
+        public Builder circuitFailureRateThreshold(double circuitFailureRateThreshold) {
+            this.circuitFailureRateThreshold = circuitFailureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the latency above which a successful call still counts against the circuit, 10s by default
+         */
+        public Builder circuitSlowCallThresholdMs(long circuitSlowCallThresholdMs) {
+            this.circuitSlowCallThresholdMs = circuitSlowCallThresholdMs;
+            return this;
+        }
+
+        /**
+         * Sets how many calls the window needs before the failure rate is evaluated, 10 by default
+         */
+        public Builder circuitMinimumCalls(int circuitMinimumCalls) {
+            this.circuitMinimumCalls = circuitMinimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit stays open before probing Slack again, 30s by default
+         */
+        public Builder circuitOpenDurationMs(long circuitOpenDurationMs) {
+            this.circuitOpenDurationMs = circuitOpenDurationMs;
+            return this;
+        }
+
+        /**
+         * Sets how many probe calls must succeed to close the circuit, 3 by default
+         */
+        public Builder circuitHalfOpenProbes(int circuitHalfOpenProbes) {
+            this.circuitHalfOpenProbes = circuitHalfOpenProbes;
+            return this;
+        }
+
         public SlackConfig build() {
-            if (botToken == null || botToken.trim().isEmpty()) {
+            if ((botToken == null || botToken.trim().isEmpty()) && webhookUrls.isEmpty()) {
                 throw new IllegalArgumentException("Bot token is required");
             }
+            for (Map.Entry<String, String> webhook : webhookUrls.entrySet()) {
+                if (webhook.getKey() == null || webhook.getValue() == null
+                        || !webhook.getValue().startsWith("https://")) {
+                    throw new IllegalArgumentException("Webhook for channel " + webhook.getKey()
+                            + " needs an https URL");
+                }
+            }
             if (defaultChannelId == null || defaultChannelId.trim().isEmpty()) {
                 throw new IllegalArgumentException("Default channel ID is required");
             }
+            if (retryDelayMs < 0 || maxRetryDelayMs < retryDelayMs) {
+                throw new IllegalArgumentException("Retry delays must satisfy 0 <= retryDelayMs <= maxRetryDelayMs");
+            }
+            if (retryBudgetRatio < 0 || minRetriesPerSecond < 0) {
+                throw new IllegalArgumentException("Retry budget must not be negative");
+            }
+            if (maxConnections <= 0) {
+                throw new IllegalArgumentException("Max connections must be positive");
+            }
+            if (dispatcherMode == null) {
+                throw new IllegalArgumentException("Dispatcher mode is required");
+            }
+            if (dispatcherPoolSize <= 0) {
+                throw new IllegalArgumentException("Dispatcher pool size must be positive");
+            }
+            if (maxInFlightRequests <= 0) {
+                throw new IllegalArgumentException("Max in-flight requests must be positive");
+            }
+            if (maxQueuedMessages <= 0 || maxQueuedBytes <= 0) {
+                throw new IllegalArgumentException("Outbound queue limits must be positive");
+            }
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("Overflow policy is required");
+            }
+            if (queueOfferTimeoutMs < 0) {
+                throw new IllegalArgumentException("Queue offer timeout must not be negative");
+            }
+            if (!(loadSheddingThreshold >= 0 && loadSheddingThreshold <= 1)) {
+                throw new IllegalArgumentException("Load shedding threshold must be between 0 and 1");
+            }
+            if (priorityAgingMs < 0) {
+                throw new IllegalArgumentException("Priority aging interval must not be negative");
+            }
+            if (shutdownTimeoutMs < 0) {
+                throw new IllegalArgumentException("Shutdown timeout must not be negative");
+            }
+            if (spoolSegmentBytes < 4096 || spoolMaxSegments < 2) {
+                throw new IllegalArgumentException("Spool needs segments of at least 4096 bytes and at least 2 segments");
+            }
+            if (dedupWindowMs < 0 || dedupCapacity <= 0) {
+                throw new IllegalArgumentException("Dedup window must not be negative and capacity must be positive");
+            }
+            if (digestIntervalMs <= 0 || digestMaxMessages < 2) {
+                throw new IllegalArgumentException("Digest interval must be positive and digests must hold at least 2 messages");
+            }
+            if (liveUpdateIntervalMs < 0) {
+                throw new IllegalArgumentException("Live update interval must not be negative");
+            }
+            if (defaultMessageTtlMs < 0) {
+                throw new IllegalArgumentException("Default message time-to-live must not be negative");
+            }
+            if (threadIndexCapacity <= 0 || threadIndexCapacity > 1 << 24 || threadTtlMs <= 0) {
+                throw new IllegalArgumentException("Thread index needs a capacity of 1 to 16777216 and a positive time-to-live");
+            }
             return new SlackConfig(this);
         }
     }
@@ -0,0 +1,115 @@
+package slack.dedup;
+
+/**
+ * Remembers recently sent idempotency keys for a fixed time window in a fixed amount of memory
+ * Keys live in an open-addressing table of primitive longs split into independently locked stripes,
+ * so a lookup allocates nothing and touches one cache line or two
+ * Expired slots are reused in place; when every slot a key may use is still live, the one closest
+ * to expiry is overwritten, so under extreme volume the oldest keys are forgotten early instead of
+ * the table growing
+ */
+public class DedupWindow {
+    private static final int STRIPES = 64;
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+
+    private final long windowNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates a window
+     *
+     * @param windowMs how long a key suppresses identical sends
+     * @param capacity number of keys kept at most, rounded up to a power of two
+     */
+    public DedupWindow(long windowMs, int capacity) {
+        if (windowMs <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Dedup window and capacity must be positive");
+        }
+        this.windowNanos = windowMs * 1_000_000L;
+        int slotsPerStripe = Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, capacity / STRIPES - 1)) << 1);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slotsPerStripe);
+        }
+    }
+
+    /**
+     * Records the key unless it was already recorded within the window
+     * Returns true if the key is new, false if the send is a duplicate
+     */
+    public boolean tryRecord(long key) {
+        long normalized = normalize(key);
+        long now = System.nanoTime();
+        Stripe stripe = stripeFor(normalized);
+        synchronized (stripe) {
+            int mask = stripe.keys.length - 1;
+            int start = (int) normalized & mask;
+            int victim = -1;
+            boolean victimFree = false;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (start + probe) & mask;
+                long slotKey = stripe.keys[slot];
+                boolean live = slotKey != EMPTY && stripe.expiresAt[slot] - now > 0;
+                if (live && slotKey == normalized) {
+                    return false;
+                }
+                if (!live) {
+                    if (!victimFree) {
+                        victim = slot;
+                        victimFree = true;
+                    }
+                } else if (!victimFree && (victim < 0 || stripe.expiresAt[slot] - stripe.expiresAt[victim] < 0)) {
+                    victim = slot;
+                }
+                if (slotKey == EMPTY) {
+                    // Slots are never emptied again, so the key cannot be further along
+                    break;
+                }
+            }
+            stripe.keys[victim] = normalized;
+            stripe.expiresAt[victim] = now + windowNanos;
+            return true;
+        }
+    }
+
+    /**
+     * Forgets a key, e.g. after its send failed, so the message may be sent again
+     */
+    public void forget(long key) {
+        long normalized = normalize(key);
+        Stripe stripe = stripeFor(normalized);
+        synchronized (stripe) {
+            int mask = stripe.keys.length - 1;
+            int start = (int) normalized & mask;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (start + probe) & mask;
+                if (stripe.keys[slot] == normalized) {
+                    // Expire rather than empty the slot, so probe sequences through it stay intact
+                    stripe.expiresAt[slot] = System.nanoTime();
+                    return;
+                }
+                if (stripe.keys[slot] == EMPTY) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) (key >>> 58) & (STRIPES - 1)];
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static final class Stripe {
+        final long[] keys;
+        final long[] expiresAt;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.expiresAt = new long[slots];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package slack.dedup;
+
+import slack.message.SlackMessage;
+
+import java.util.List;
+
+/**
+ * Fast 64-bit fingerprint of a message and its target channel, used as idempotency key
+ * FNV-1a over every string in the block tree, with a separator between fields so that
+ * moving text from one field to the next changes the result, finished with a MurmurHash3 mix
+ * Walks the blocks in place without serializing or allocating
+ */
+public final class MessageFingerprint {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char NULL_MARKER = '\u0000';
+
+    private MessageFingerprint() {
+    }
+
+    /**
+     * Fingerprints the blocks, fallback text and thread of a message sent to a channel
+     */
+    public static long of(String channelId, SlackMessage message) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, channelId);
+        hash = mix(hash, message.getText());
+        hash = mix(hash, message.getThreadTs());
+        List<SlackMessage.Block> blocks = message.getBlocks();
+        if (blocks != null) {
+            for (SlackMessage.Block block : blocks) {
+                hash = mix(hash, block);
+            }
+        }
+        return finish(hash);
+    }
+
+    /**
+     * Fingerprints a caller-supplied idempotency key for a channel
+     */
+    public static long ofKey(String channelId, String idempotencyKey) {
+        return finish(mix(mix(FNV_OFFSET, channelId), idempotencyKey));
+    }
+
+    private static long mix(long hash, SlackMessage.Block block) {
+        hash = mix(hash, block.getType());
+        hash = mix(hash, block.getText());
+        hash = mix(hash, block.getBlockId());
+        if (block.getFields() != null) {
+            for (SlackMessage.Text field : block.getFields()) {
+                hash = mix(hash, field);
+            }
+        }
+        if (block.getElements() != null) {
+            for (SlackMessage.Element element : block.getElements()) {
+                hash = mix(hash, element);
+            }
+        }
+        return mix(hash, block.getAccessory());
+    }
+
+    private static long mix(long hash, SlackMessage.Element element) {
+        if (element == null) {
+            return step(hash, NULL_MARKER);
+        }
+        hash = mix(hash, element.getType());
+        Object text = element.getText();
+        hash = text instanceof SlackMessage.Text
+                ? mix(hash, (SlackMessage.Text) text)
+                : mix(hash, text != null ? text.toString() : null);
+        hash = mix(hash, element.getActionId());
+        hash = mix(hash, element.getUrl());
+        hash = mix(hash, element.getStyle());
+        return mix(hash, element.getValue());
+    }
+
+    private static long mix(long hash, SlackMessage.Text text) {
+        if (text == null) {
+            return step(hash, NULL_MARKER);
+        }
+        hash = mix(hash, text.getType());
+        return mix(hash, text.getText());
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return step(hash, NULL_MARKER);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = step(hash, value.charAt(i));
+        }
+        return step(hash, FIELD_SEPARATOR);
+    }
+
+    private static long step(long hash, char c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,14 @@
+package slack.exception;
+
+/**
+ * Thrown when a send is rejected because the circuit breaker considers Slack unavailable
+ */
+public class SlackCircuitOpenException extends SlackException {
+
+    /**
+     * Creates a new SlackCircuitOpenException
+     */
+    public SlackCircuitOpenException(String message) {
+        super(message);
+    }
+}
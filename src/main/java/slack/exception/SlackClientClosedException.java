@@ -0,0 +1,15 @@
+package slack.exception;
+
+/**
+ * Thrown when a message is refused or abandoned because the client has been shut down
+ * Abandoned messages that were spooled stay in the spool and are resent by the next client
+ */
+public class SlackClientClosedException extends SlackException {
+
+    /**
+     * Creates a new SlackClientClosedException
+     */
+    public SlackClientClosedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package slack.exception;
+
+/**
+ * Thrown when a message is given up because its delivery deadline passed or cannot be met
+ * Messages that expire before their first attempt are never sent
+ */
+public class SlackDeadlineExceededException extends SlackException {
+
+    /**
+     * Creates a new SlackDeadlineExceededException
+     *
+     * @param cause the failure of the last attempt, or null when the message was never sent
+     */
+    public SlackDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package slack.exception;
+
+/**
+ * Thrown when a send is suppressed because the same message was sent within the deduplication window
+ */
+public class SlackDuplicateMessageException extends SlackException {
+
+    /**
+     * Creates a new SlackDuplicateMessageException
+     */
+    public SlackDuplicateMessageException(String message) {
+        super(message);
+    }
+}
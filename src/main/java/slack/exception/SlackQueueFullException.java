@@ -0,0 +1,14 @@
+package slack.exception;
+
+/**
+ * Thrown when a message is rejected or dropped because the outbound queue is full
+ */
+public class SlackQueueFullException extends SlackException {
+
+    /**
+     * Creates a new SlackQueueFullException
+     */
+    public SlackQueueFullException(String message) {
+        super(message);
+    }
+}
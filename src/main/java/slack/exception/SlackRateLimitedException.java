@@ -0,0 +1,25 @@
+package slack.exception;
+
+/**
+ * Thrown when Slack rejects a request because a rate limit was exceeded
+ * Carries the back-off period Slack asked for in the Retry-After header
+ */
+public class SlackRateLimitedException extends SlackException {
+
+    private final long retryAfterMs;
+
+    /**
+     * Creates a new SlackRateLimitedException
+     */
+    public SlackRateLimitedException(String message, String errorCode, int httpStatusCode, long retryAfterMs) {
+        super(message, errorCode, httpStatusCode);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Returns how long Slack asked us to wait before the next request, in milliseconds
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,34 @@
+package slack.message;
+
+/**
+ * Importance of a notification, used to decide what is sent first and what may be dropped
+ * Declared from most to least important
+ */
+public enum Severity {
+    CRITICAL,
+    HIGH,
+    MEDIUM,
+    LOW;
+
+    /**
+     * Parses a severity name as used by the report templates, ignoring case
+     * Unknown or missing names map to MEDIUM
+     */
+    public static Severity parse(String name) {
+        if (name != null) {
+            for (Severity severity : values()) {
+                if (severity.name().equalsIgnoreCase(name.trim())) {
+                    return severity;
+                }
+            }
+        }
+        return MEDIUM;
+    }
+
+    /**
+     * Returns true if this severity is less important than the other one
+     */
+    public boolean isLowerThan(Severity other) {
+        return ordinal() > other.ordinal();
+    }
+}
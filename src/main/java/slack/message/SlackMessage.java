@@ -1,6 +1,8 @@
 package slack.message;
 
 import com.google.gson.annotations.SerializedName;
+
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,6 +23,16 @@ public class SlackMessage {
     @SerializedName("blocks")
     private List<Block> blocks;
 
+    // Delivery hint only, never sent to Slack
+    private transient Severity severity = Severity.MEDIUM;
+    private transient boolean severitySet;
+    private transient String idempotencyKey;
+    private transient String correlationKey;
+    private transient long ttlMs;
+    private transient Instant deadline;
+    // Diagnostics only: the template the message was rendered from
+    private transient String templateType;
+
     public SlackMessage() {
         this.blocks = new ArrayList<>();
     }
@@ -39,6 +51,23 @@ public class SlackMessage {
     public void setText(String text) { this.text = text; }
     public List<Block> getBlocks() { return blocks; }
     public void setBlocks(List<Block> blocks) { this.blocks = blocks; }
+    public Severity getSeverity() { return severity; }
+    public void setSeverity(Severity severity) {
+        this.severity = severity != null ? severity : Severity.MEDIUM;
+        this.severitySet = severity != null;
+    }
+    /** Returns true if the severity was set explicitly rather than left at the MEDIUM default */
+    public boolean isSeveritySet() { return severitySet; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    public String getCorrelationKey() { return correlationKey; }
+    public void setCorrelationKey(String correlationKey) { this.correlationKey = correlationKey; }
+    public long getTtlMs() { return ttlMs; }
+    public void setTtlMs(long ttlMs) { this.ttlMs = ttlMs; }
+    public Instant getDeadline() { return deadline; }
+    public void setDeadline(Instant deadline) { this.deadline = deadline; }
+    public String getTemplateType() { return templateType; }
+    public void setTemplateType(String templateType) { this.templateType = templateType; }
 
     public void addBlock(Block block) {
         if (this.blocks == null) {
@@ -1,5 +1,6 @@
 package slack.message;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,6 +42,50 @@ public class SlackMessageBuilder {
         return this;
     }
 
+    /**
+     * Sets how important the message is, MEDIUM by default
+     * Only messages with an explicit MEDIUM or LOW severity are collected into digests
+     */
+    public SlackMessageBuilder severity(Severity severity) {
+        message.setSeverity(severity);
+        return this;
+    }
+
+    /**
+     * Sets the key used to recognise repeated sends of the same message
+     * Without one, a fingerprint of the message content is used
+     */
+    public SlackMessageBuilder idempotencyKey(String idempotencyKey) {
+        message.setIdempotencyKey(idempotencyKey);
+        return this;
+    }
+
+    /**
+     * Ties the message to an incident or operation
+     * The first message with a key opens a thread in its channel; later ones are posted as replies to it
+     */
+    public SlackMessageBuilder correlationKey(String correlationKey) {
+        message.setCorrelationKey(correlationKey);
+        return this;
+    }
+
+    /**
+     * Gives up on the message if it has not been delivered this long after it was sent
+     * Overrides the client's default time-to-live
+     */
+    public SlackMessageBuilder ttlMs(long ttlMs) {
+        message.setTtlMs(ttlMs);
+        return this;
+    }
+
+    /**
+     * Gives up on the message if it has not been delivered by this instant
+     */
+    public SlackMessageBuilder deadline(Instant deadline) {
+        message.setDeadline(deadline);
+        return this;
+    }
+
     /**
      * Adds a header block to the message
      */
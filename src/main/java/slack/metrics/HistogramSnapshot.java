@@ -0,0 +1,94 @@
+package slack.metrics;
+
+/**
+ * Point-in-time copy of a {@link LogLinearHistogram}
+ * Only non-empty buckets are kept, each as its inclusive upper bound and the number of values in it,
+ * in ascending order; exporters turn them into cumulative buckets as their format requires
+ */
+public final class HistogramSnapshot {
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long[] upperBounds;
+    private final long[] counts;
+
+    HistogramSnapshot(long count, long sum, long max, long[] upperBounds, long[] counts) {
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+    }
+
+    /**
+     * Returns the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the largest recorded value, 0 when nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values, 0 when nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns an upper estimate of the value below which the given fraction of values falls
+     * The estimate is the upper bound of the bucket holding that value, capped at the maximum
+     *
+     * @param quantile fraction between 0 and 1, e.g. 0.99 for the 99th percentile
+     */
+    public long getValueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBounds[i], max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the inclusive upper bounds of the non-empty buckets, ascending
+     */
+    public long[] getBucketUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * Returns the number of values in each non-empty bucket, matching {@link #getBucketUpperBounds()}
+     */
+    public long[] getBucketCounts() {
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{count=" + count + ", mean=" + Math.round(getMean()) + ", p50="
+                + getValueAtQuantile(0.5) + ", p99=" + getValueAtQuantile(0.99) + ", max=" + max + "}";
+    }
+}
@@ -0,0 +1,80 @@
+package slack.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values, such as latencies in nanoseconds
+ * Buckets are log-linear: every power of two is split into 16 equal sub-buckets, so any value is
+ * counted in a bucket at most 6.25% wider than the value itself, from 0 up to Long.MAX_VALUE
+ * Recording is one array increment plus two striped adds and allocates nothing
+ */
+public final class LogLinearHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a value; negative values are counted as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.getAndIncrement(indexOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns a copy of the recorded distribution
+     * Values recorded while the copy is taken may be counted in some of its figures and not in others
+     */
+    public HistogramSnapshot snapshot() {
+        int used = 0;
+        long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+            if (bucketCounts[i] != 0) {
+                used++;
+            }
+        }
+        long[] upperBounds = new long[used];
+        long[] nonEmptyCounts = new long[used];
+        long count = 0;
+        for (int i = 0, j = 0; i < BUCKETS; i++) {
+            if (bucketCounts[i] != 0) {
+                upperBounds[j] = upperBoundOf(i);
+                nonEmptyCounts[j++] = bucketCounts[i];
+                count += bucketCounts[i];
+            }
+        }
+        return new HistogramSnapshot(count, sum.sum(), max.get(), upperBounds, nonEmptyCounts);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long lowerBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long upperBoundOf(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : lowerBoundOf(index + 1) - 1;
+    }
+}
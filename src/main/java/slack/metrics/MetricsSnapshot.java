@@ -0,0 +1,103 @@
+package slack.metrics;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a client's {@link SlackMetrics}
+ * Counters only grow over the client's lifetime; exporters report them as monotonic counters
+ */
+public final class MetricsSnapshot {
+    private final long sends;
+    private final long successes;
+    private final long failures;
+    private final long attempts;
+    private final long retries;
+    private final long bytesSent;
+    private final Map<String, Long> failuresByError;
+    private final Map<String, Long> gauges;
+    private final Map<SlackMetrics.Phase, HistogramSnapshot> latencies;
+
+    MetricsSnapshot(long sends, long successes, long failures, long attempts, long retries, long bytesSent,
+                    Map<String, Long> failuresByError, Map<String, Long> gauges,
+                    Map<SlackMetrics.Phase, HistogramSnapshot> latencies) {
+        this.sends = sends;
+        this.successes = successes;
+        this.failures = failures;
+        this.attempts = attempts;
+        this.retries = retries;
+        this.bytesSent = bytesSent;
+        this.failuresByError = failuresByError;
+        this.gauges = gauges;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Returns how many messages entered the pipeline
+     */
+    public long getSends() {
+        return sends;
+    }
+
+    /**
+     * Returns how many messages were delivered
+     */
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * Returns how many messages were given up
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns how many HTTP attempts were made, first attempts and retries
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns how many of those attempts were retries
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Returns the payload bytes of all attempts
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Returns the failures by Slack error code, or by failure kind such as deadline_exceeded or io_error
+     */
+    public Map<String, Long> getFailuresByError() {
+        return failuresByError;
+    }
+
+    /**
+     * Returns the gauges by name, such as queue.depth
+     */
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Returns the latency distribution of a phase, in nanoseconds
+     */
+    public HistogramSnapshot getLatency(SlackMetrics.Phase phase) {
+        return latencies.get(phase);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{sends=" + sends + ", successes=" + successes + ", failures=" + failures
+                + ", attempts=" + attempts + ", retries=" + retries + ", bytesSent=" + bytesSent
+                + ", failuresByError=" + failuresByError + ", gauges=" + gauges + "}";
+    }
+}
@@ -0,0 +1,132 @@
+package slack.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, gauges and latency histograms of one client's send pipeline
+ * Counters are striped LongAdders and histograms are lock-free, so recording never blocks a sender
+ * Applications read them through {@link #snapshot()}, e.g. to bridge them to Prometheus or Micrometer
+ */
+public class SlackMetrics {
+
+    /**
+     * Stages of a send whose duration is recorded, in nanoseconds
+     */
+    public enum Phase {
+        /**
+         * Encoding the message into its JSON payload
+         */
+        SERIALIZE,
+
+        /**
+         * From acceptance into the outbound queue until the first attempt starts,
+         * including ordering, rate-limit and in-flight waits
+         */
+        QUEUE_WAIT,
+
+        /**
+         * Waiting for a free pooled connection; only reported by transports that pool connections
+         */
+        CONNECTION_WAIT,
+
+        /**
+         * From sending the request until the response headers arrive; only reported by the HTTP transport
+         */
+        FIRST_BYTE,
+
+        /**
+         * One complete HTTP attempt, from handing it to the transport until the response is read
+         */
+        ATTEMPT,
+
+        /**
+         * From the send call until the message was delivered, across all attempts and waits
+         */
+        TOTAL
+    }
+
+    private final LongAdder sends = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> failuresByError = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<Phase, LogLinearHistogram> latencies = new EnumMap<>(Phase.class);
+
+    public SlackMetrics() {
+        for (Phase phase : Phase.values()) {
+            latencies.put(phase, new LogLinearHistogram());
+        }
+    }
+
+    /**
+     * Counts a message entering the pipeline
+     */
+    public void recordSend() {
+        sends.increment();
+    }
+
+    /**
+     * Counts a delivered message
+     */
+    public void recordSuccess() {
+        successes.increment();
+    }
+
+    /**
+     * Counts a message that was given up, under the Slack error code or failure kind that ended it
+     */
+    public void recordFailure(String error) {
+        failures.increment();
+        failuresByError.computeIfAbsent(error, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts an HTTP attempt carrying the given number of payload bytes
+     */
+    public void recordAttempt(long payloadBytes, boolean retry) {
+        attempts.increment();
+        bytesSent.add(payloadBytes);
+        if (retry) {
+            retries.increment();
+        }
+    }
+
+    /**
+     * Records how long a phase of a send took
+     */
+    public void recordLatency(Phase phase, long nanos) {
+        latencies.get(phase).record(nanos);
+    }
+
+    /**
+     * Registers a value read each time a snapshot is taken, replacing any gauge of the same name
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Returns a copy of all counters, gauges and histograms
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failuresByError.forEach((error, count) -> failureCounts.put(error, count.sum()));
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, value) -> gaugeValues.put(name, value.getAsLong()));
+        Map<Phase, HistogramSnapshot> latencySnapshots = new EnumMap<>(Phase.class);
+        latencies.forEach((phase, histogram) -> latencySnapshots.put(phase, histogram.snapshot()));
+        return new MetricsSnapshot(sends.sum(), successes.sum(), failures.sum(), attempts.sum(), retries.sum(),
+                bytesSent.sum(), Collections.unmodifiableMap(failureCounts),
+                Collections.unmodifiableMap(gaugeValues), Collections.unmodifiableMap(latencySnapshots));
+    }
+}
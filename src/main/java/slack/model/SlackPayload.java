@@ -0,0 +1,91 @@
+package slack.model;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact JSON encoding of a Slack API request body
+ * Serialized once straight to UTF-8 bytes through a JsonWriter and reused for every retry attempt
+ */
+public final class SlackPayload {
+    private static final Gson GSON = new Gson();
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    private final byte[] buffer;
+    private final int size;
+
+    private SlackPayload(byte[] buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Encodes a request without building an intermediate String
+     */
+    public static SlackPayload encode(Object request) {
+        PayloadBuffer out = new PayloadBuffer();
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            GSON.toJson(request, request.getClass(), writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode Slack request", e);
+        }
+        return new SlackPayload(out.buffer(), out.size());
+    }
+
+    /**
+     * Wraps bytes that already hold an encoded request, e.g. one read back from the spool
+     */
+    public static SlackPayload wrap(byte[] encoded) {
+        return new SlackPayload(encoded, encoded.length);
+    }
+
+    /**
+     * Returns the encoded size in bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array; only the first {@link #size()} bytes are valid
+     * The array is shared between attempts and must not be modified
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Writes the encoded bytes to a stream
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * Decodes the payload for logging and debugging
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Output buffer that hands over its array instead of copying it
+     */
+    private static final class PayloadBuffer extends ByteArrayOutputStream {
+        PayloadBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
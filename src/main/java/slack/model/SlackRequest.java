@@ -1,5 +1,7 @@
 package slack.model;
 
+import com.google.gson.annotations.SerializedName;
+
 /**
  * Represents a Slack API request
  * Contains common request parameters for Slack API calls
@@ -9,14 +11,22 @@ public class SlackRequest {
     private String channel;
     private String text;
     private Object blocks;
+    @SerializedName("thread_ts")
     private String threadTs;
+    private String ts;
     private String username;
+    @SerializedName("icon_emoji")
     private String iconEmoji;
+    @SerializedName("icon_url")
     private String iconUrl;
+    @SerializedName("as_user")
     private Boolean asUser;
     private String parse;
+    @SerializedName("link_names")
     private Boolean linkNames;
+    @SerializedName("unfurl_links")
     private Boolean unfurlLinks;
+    @SerializedName("unfurl_media")
     private Boolean unfurlMedia;
 
     public SlackRequest() {
@@ -60,6 +70,17 @@ public class SlackRequest {
         this.threadTs = threadTs;
     }
 
+    /**
+     * Returns the timestamp of the message to edit, set only for chat.update
+     */
+    public String getTs() {
+        return ts;
+    }
+
+    public void setTs(String ts) {
+        this.ts = ts;
+    }
+
     public String getUsername() {
         return username;
     }
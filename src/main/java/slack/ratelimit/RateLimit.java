@@ -0,0 +1,62 @@
+package slack.ratelimit;
+
+/**
+ * Immutable rate limit definition: a sustained rate plus a burst allowance
+ */
+public final class RateLimit {
+    /**
+     * Effectively no limit; used for buckets that only exist to honor a Retry-After pause
+     */
+    static final RateLimit UNLIMITED = new RateLimit(1_000_000_000.0, 1);
+
+    private final double permitsPerSecond;
+    private final int burst;
+
+    private RateLimit(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Creates a limit of the given permits per second, allowing bursts of up to burst permits
+     */
+    public static RateLimit perSecond(double permitsPerSecond, int burst) {
+        return new RateLimit(permitsPerSecond, burst);
+    }
+
+    /**
+     * Creates a limit of the given permits per minute, allowing bursts of up to burst permits
+     */
+    public static RateLimit perMinute(double permitsPerMinute, int burst) {
+        return new RateLimit(permitsPerMinute / 60.0, burst);
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the spacing between permits at the sustained rate
+     */
+    long intervalNanos() {
+        return Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{" +
+                "permitsPerSecond=" + permitsPerSecond +
+                ", burst=" + burst +
+                '}';
+    }
+}
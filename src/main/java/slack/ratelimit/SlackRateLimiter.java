@@ -0,0 +1,135 @@
+package slack.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client-side rate limiter mirroring Slack's limits
+ * Every send needs a permit from its channel bucket (per API method and channel),
+ * then a permit from the method bucket shared by all channels of the workspace
+ * Buckets live in concurrent maps and update without locks; idle buckets are dropped over time
+ * When Slack answers with Retry-After, the affected bucket is paused for every thread at once
+ */
+public class SlackRateLimiter {
+    private static final int SWEEP_ODDS = 4096;
+
+    private final RateLimit channelLimit;
+    private final RateLimit methodLimit;
+    private final ConcurrentMap<String, ConcurrentMap<String, TokenBucket>> channelBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> methodBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a limiter; either limit may be null to leave that level unlimited
+     * Retry-After pauses are honored even for unlimited levels
+     */
+    public SlackRateLimiter(RateLimit channelLimit, RateLimit methodLimit) {
+        this.channelLimit = channelLimit;
+        this.methodLimit = methodLimit;
+    }
+
+    /**
+     * Reserves the channel permit for one call of the API method to the channel
+     * Returns how many nanoseconds the caller must wait before taking the method permit
+     */
+    public long reserveChannel(String method, String channelId) {
+        long now = System.nanoTime();
+        TokenBucket bucket = channelLimit != null
+                ? channelBucket(method, channelId, now, channelLimit)
+                : existingChannelBucket(method, channelId);
+        long wait = bucket != null ? bucket.reserve(now) - now : 0L;
+        maybeSweep(now);
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * Reserves the workspace-wide permit for one call of the API method
+     * Taken only once the channel permit is usable, so a channel that is far behind
+     * never pushes back sends to other channels
+     * Returns how many nanoseconds the caller must wait before sending
+     */
+    public long reserveMethod(String method) {
+        long now = System.nanoTime();
+        TokenBucket bucket = methodLimit != null
+                ? methodBucket(method, now, methodLimit)
+                : methodBuckets.get(method);
+        return bucket != null ? Math.max(0L, bucket.reserve(now) - now) : 0L;
+    }
+
+    /**
+     * Stops handing out permits for the API method and channel for the given time
+     */
+    public void pauseChannel(String method, String channelId, long durationNanos) {
+        long now = System.nanoTime();
+        RateLimit limit = channelLimit != null ? channelLimit : RateLimit.UNLIMITED;
+        channelBucket(method, channelId, now, limit).pauseUntil(now + durationNanos);
+    }
+
+    /**
+     * Stops handing out permits for the API method on every channel for the given time
+     */
+    public void pauseMethod(String method, long durationNanos) {
+        long now = System.nanoTime();
+        RateLimit limit = methodLimit != null ? methodLimit : RateLimit.UNLIMITED;
+        methodBucket(method, now, limit).pauseUntil(now + durationNanos);
+    }
+
+    /**
+     * Returns how long sends to the channel remain paused, zero when they may proceed
+     * Used to hold back permits that were reserved before a pause began
+     */
+    public long pausedNanos(String method, String channelId) {
+        long now = System.nanoTime();
+        long paused = 0L;
+        TokenBucket channel = existingChannelBucket(method, channelId);
+        if (channel != null) {
+            paused = channel.pausedNanos(now);
+        }
+        TokenBucket methodBucket = methodBuckets.get(method);
+        if (methodBucket != null) {
+            paused = Math.max(paused, methodBucket.pausedNanos(now));
+        }
+        return paused;
+    }
+
+    /**
+     * Returns the number of buckets currently tracked
+     */
+    public int getTrackedBuckets() {
+        int count = methodBuckets.size();
+        for (ConcurrentMap<String, TokenBucket> buckets : channelBuckets.values()) {
+            count += buckets.size();
+        }
+        return count;
+    }
+
+    private TokenBucket channelBucket(String method, String channelId, long now, RateLimit limit) {
+        ConcurrentMap<String, TokenBucket> buckets =
+                channelBuckets.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        TokenBucket bucket = buckets.get(channelId);
+        return bucket != null ? bucket : buckets.computeIfAbsent(channelId, key -> new TokenBucket(limit, now));
+    }
+
+    private TokenBucket existingChannelBucket(String method, String channelId) {
+        ConcurrentMap<String, TokenBucket> buckets = channelBuckets.get(method);
+        return buckets != null ? buckets.get(channelId) : null;
+    }
+
+    private TokenBucket methodBucket(String method, long now, RateLimit limit) {
+        TokenBucket bucket = methodBuckets.get(method);
+        return bucket != null ? bucket : methodBuckets.computeIfAbsent(method, key -> new TokenBucket(limit, now));
+    }
+
+    private void maybeSweep(long now) {
+        if (ThreadLocalRandom.current().nextInt(SWEEP_ODDS) == 0) {
+            sweepIdleBuckets(now);
+        }
+    }
+
+    private void sweepIdleBuckets(long now) {
+        for (ConcurrentMap<String, TokenBucket> buckets : channelBuckets.values()) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+        methodBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+}
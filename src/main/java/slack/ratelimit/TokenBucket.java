@@ -0,0 +1,84 @@
+package slack.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm
+ * The whole bucket state is one theoretical-arrival timestamp updated with CAS,
+ * so producers on many threads never contend on a monitor
+ * Permits are reserved rather than polled: the caller learns when its permit becomes usable
+ */
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong pausedUntil;
+
+    public TokenBucket(RateLimit limit, long nowNanos) {
+        this.intervalNanos = limit.intervalNanos();
+        this.toleranceNanos = intervalNanos * (limit.getBurst() - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.pausedUntil = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Reserves the next permit usable at or after the given time
+     * Returns the System.nanoTime() value at which the permit may be used
+     */
+    public long reserve(long atNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long earliest = tat - toleranceNanos;
+            long allowed = earliest - atNanos > 0 ? earliest : atNanos;
+            long next = (tat - allowed > 0 ? tat : allowed) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return allowed;
+            }
+        }
+    }
+
+    /**
+     * Takes a permit only if one is usable right now, without reserving a future one
+     */
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            if (tat - toleranceNanos - nowNanos > 0) {
+                return false;
+            }
+            long next = (tat - nowNanos > 0 ? tat : nowNanos) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hands out no permits before the given time, e.g. after Slack asked us to back off
+     */
+    public void pauseUntil(long untilNanos) {
+        pausedUntil.accumulateAndGet(untilNanos, (current, until) -> until - current > 0 ? until : current);
+        long target = untilNanos + toleranceNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            if (tat - target >= 0 || theoreticalArrival.compareAndSet(tat, target)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns how long the bucket stays paused, zero when it is not paused
+     * Permits reserved before a pause started should check this before being used
+     */
+    public long pausedNanos(long nowNanos) {
+        return Math.max(0L, pausedUntil.get() - nowNanos);
+    }
+
+    /**
+     * Returns true when the bucket is full, so dropping it and creating a new one later changes nothing
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
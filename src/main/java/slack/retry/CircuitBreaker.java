@@ -0,0 +1,183 @@
+package slack.retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker guarding the Slack endpoint
+ * CLOSED: calls flow and their outcome is recorded in a sliding time window
+ * OPEN: entered when the share of failed or slow calls crosses the threshold; calls are rejected at once
+ * HALF_OPEN: after the open period a few probe calls are let through; all succeeding closes the circuit,
+ * any failing opens it again
+ * All state lives in atomics, so checking the breaker costs a few volatile reads on the send path
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int WINDOW_BUCKETS = 10;
+    private static final long BUCKET_NANOS = 1_000_000_000L;
+
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicInteger probesStarted = new AtomicInteger();
+    private final AtomicInteger probesSucceeded = new AtomicInteger();
+
+    private final AtomicLongArray bucketEpochs = new AtomicLongArray(WINDOW_BUCKETS);
+    private final AtomicLongArray bucketCalls = new AtomicLongArray(WINDOW_BUCKETS);
+    private final AtomicLongArray bucketFailures = new AtomicLongArray(WINDOW_BUCKETS);
+
+    /**
+     * Creates a breaker
+     *
+     * @param failureRateThreshold share of unhealthy calls (0..1) in the last 10 seconds that opens the circuit
+     * @param slowCallThresholdMs calls slower than this count as unhealthy even when they succeed
+     * @param minimumCalls calls needed in the window before the rate is evaluated
+     * @param openDurationMs how long the circuit stays open before probing
+     * @param halfOpenProbes probe calls that must all succeed to close the circuit
+     */
+    public CircuitBreaker(double failureRateThreshold, long slowCallThresholdMs, int minimumCalls,
+                          long openDurationMs, int halfOpenProbes) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        }
+        if (minimumCalls <= 0 || halfOpenProbes <= 0) {
+            throw new IllegalArgumentException("Minimum calls and probes must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdMs * 1_000_000L;
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = openDurationMs * 1_000_000L;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Returns true if a call may be made now
+     * In HALF_OPEN this hands out one of the limited probe slots
+     */
+    public boolean tryAcquirePermission() {
+        switch (currentState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                return probesStarted.incrementAndGet() <= halfOpenProbes;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns true if calls are currently being rejected without consuming a probe slot
+     */
+    public boolean isCallNotPermitted() {
+        State current = currentState();
+        return current == State.OPEN
+                || (current == State.HALF_OPEN && probesStarted.get() >= halfOpenProbes);
+    }
+
+    /**
+     * Records a call that reached Slack and got an answer
+     */
+    public void recordSuccess(long latencyNanos) {
+        boolean slow = slowCallThresholdNanos > 0 && latencyNanos >= slowCallThresholdNanos;
+        record(slow);
+    }
+
+    /**
+     * Records a call that failed because Slack or the network was unhealthy
+     */
+    public void recordFailure() {
+        record(true);
+    }
+
+    public State getState() {
+        return currentState();
+    }
+
+    private void record(boolean unhealthy) {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (unhealthy) {
+                open(State.HALF_OPEN);
+            } else if (probesSucceeded.incrementAndGet() >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        if (current == State.OPEN) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        int index = bucketFor(now);
+        bucketCalls.incrementAndGet(index);
+        if (unhealthy) {
+            bucketFailures.incrementAndGet(index);
+            evaluate(now);
+        }
+    }
+
+    private void evaluate(long now) {
+        long epoch = now / BUCKET_NANOS;
+        long calls = 0;
+        long failures = 0;
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            if (epoch - bucketEpochs.get(i) < WINDOW_BUCKETS) {
+                calls += bucketCalls.get(i);
+                failures += bucketFailures.get(i);
+            }
+        }
+        if (calls >= minimumCalls && failures >= calls * failureRateThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    private int bucketFor(long now) {
+        long epoch = now / BUCKET_NANOS;
+        int index = (int) Math.floorMod(epoch, (long) WINDOW_BUCKETS);
+        long seen = bucketEpochs.get(index);
+        if (seen != epoch && bucketEpochs.compareAndSet(index, seen, epoch)) {
+            // First call in a new second reuses the slot of the oldest one
+            bucketCalls.set(index, 0);
+            bucketFailures.set(index, 0);
+        }
+        return index;
+    }
+
+    private State currentState() {
+        State current = state.get();
+        if (current == State.OPEN && System.nanoTime() - openedAt.get() >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            probesStarted.set(0);
+            probesSucceeded.set(0);
+            return State.HALF_OPEN;
+        }
+        return state.get();
+    }
+
+    private void open(State from) {
+        openedAt.set(System.nanoTime());
+        state.compareAndSet(from, State.OPEN);
+    }
+
+    private void close() {
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            bucketCalls.set(i, 0);
+            bucketFailures.set(i, 0);
+        }
+        state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+    }
+}
@@ -0,0 +1,37 @@
+package slack.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter
+ * The n-th retry waits a random time between zero and min(maxDelay, baseDelay * 2^(n-1)),
+ * which spreads retries from many clients instead of synchronizing them
+ */
+public final class ExponentialBackoff {
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public ExponentialBackoff(long baseDelayMs, long maxDelayMs) {
+        if (baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException("Backoff delays must satisfy 0 <= base <= max");
+        }
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * Returns the delay before the given retry, counting from 1
+     */
+    public long delayMs(int retry) {
+        return ThreadLocalRandom.current().nextLong(ceilingMs(retry) + 1);
+    }
+
+    /**
+     * Returns the upper bound of the delay before the given retry
+     */
+    public long ceilingMs(int retry) {
+        int shift = Math.min(Math.max(retry - 1, 0), 30);
+        long ceiling = baseDelayMs << shift;
+        return ceiling < 0 || ceiling > maxDelayMs ? maxDelayMs : ceiling;
+    }
+}
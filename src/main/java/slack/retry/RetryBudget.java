@@ -0,0 +1,74 @@
+package slack.retry;
+
+import slack.ratelimit.RateLimit;
+import slack.ratelimit.TokenBucket;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a fraction of first attempts across the whole client
+ * Every first attempt deposits a fraction of a retry; every retry withdraws a whole one
+ * A small per-second allowance keeps retries possible when traffic is low
+ * During a Slack outage this stops retries from multiplying outbound traffic
+ */
+public class RetryBudget {
+    private static final long UNIT = 1000;
+    private static final long MAX_SAVED_RETRIES = 100;
+
+    private final double ratio;
+    private final long depositPerAttempt;
+    private final long maxBalance;
+    private final AtomicLong balance = new AtomicLong();
+    private final TokenBucket minimumRetries;
+
+    /**
+     * Creates a budget allowing ratio retries per first attempt plus minRetriesPerSecond
+     */
+    public RetryBudget(double ratio, double minRetriesPerSecond) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Retry budget ratio must not be negative");
+        }
+        this.ratio = ratio;
+        this.depositPerAttempt = Math.round(ratio * UNIT);
+        this.maxBalance = MAX_SAVED_RETRIES * UNIT;
+        this.minimumRetries = minRetriesPerSecond > 0
+                ? new TokenBucket(RateLimit.perSecond(minRetriesPerSecond, (int) Math.ceil(minRetriesPerSecond)),
+                        System.nanoTime())
+                : null;
+    }
+
+    /**
+     * Records a first attempt, earning a fraction of a retry
+     */
+    public void onFirstAttempt() {
+        if (depositPerAttempt > 0) {
+            balance.accumulateAndGet(depositPerAttempt, (current, deposit) -> Math.min(maxBalance, current + deposit));
+        }
+    }
+
+    /**
+     * Takes one retry from the budget, returning false when the budget is exhausted
+     */
+    public boolean tryAcquireRetry() {
+        while (true) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return minimumRetries != null && minimumRetries.tryAcquire(System.nanoTime());
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of whole retries currently available from deposits
+     */
+    public long getAvailableRetries() {
+        return balance.get() / UNIT;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+}
@@ -0,0 +1,75 @@
+package slack.retry;
+
+import slack.exception.SlackDeadlineExceededException;
+import slack.exception.SlackException;
+import slack.exception.SlackRateLimitedException;
+
+import java.util.Set;
+
+/**
+ * Decides whether a failed send is worth retrying
+ * Permanent errors (bad token, unknown channel, invalid payload) fail immediately,
+ * transient ones (Slack outages, timeouts, 5xx) are retried with backoff
+ */
+public final class SlackErrorClassifier {
+
+    private static final Set<String> PERMANENT_ERRORS = Set.of(
+            "channel_not_found", "not_in_channel", "is_archived", "msg_too_long", "no_text",
+            "too_many_attachments", "invalid_blocks", "invalid_blocks_format", "invalid_attachments",
+            "invalid_auth", "not_authed", "account_inactive", "token_revoked", "token_expired",
+            "no_permission", "missing_scope", "not_allowed_token_type", "restricted_action",
+            "restricted_action_read_only_channel", "restricted_action_thread_only_channel",
+            "restricted_action_non_threadable_channel", "cannot_reply_to_message", "ekm_access_denied",
+            "team_access_not_granted", "org_login_required", "invalid_arguments", "invalid_arg_name",
+            "invalid_array_arg", "invalid_charset", "invalid_form_data", "invalid_post_type",
+            "missing_post_type", "method_deprecated", "deprecated_endpoint", "two_factor_setup_required",
+            "channel_is_archived", "message_not_found", "cant_update_message", "edit_window_closed",
+            // Incoming webhook errors
+            "invalid_payload", "user_not_found", "action_prohibited", "posting_to_general_channel_denied",
+            "invalid_token", "no_service", "no_service_id", "no_team", "team_disabled", "no_active_hooks");
+
+    private static final Set<String> TRANSIENT_ERRORS = Set.of(
+            "internal_error", "fatal_error", "service_unavailable", "request_timeout", "ratelimited",
+            "team_added_to_org");
+
+    private SlackErrorClassifier() {
+    }
+
+    /**
+     * Returns true if the failure may succeed when the same request is sent again
+     */
+    public static boolean isRetryable(SlackException failure) {
+        if (failure instanceof SlackDeadlineExceededException) {
+            return false;
+        }
+        if (failure instanceof SlackRateLimitedException) {
+            return true;
+        }
+
+        String errorCode = failure.getErrorCode();
+        if (errorCode != null) {
+            if (PERMANENT_ERRORS.contains(errorCode)) {
+                return false;
+            }
+            if (TRANSIENT_ERRORS.contains(errorCode)) {
+                return true;
+            }
+        }
+
+        int status = failure.getHttpStatusCode();
+        if (status >= 400 && status < 500) {
+            // 408 Request Timeout and 429 Too Many Requests are the only client errors worth repeating
+            return status == 408 || status == 429;
+        }
+
+        // 5xx, unknown Slack error codes and I/O failures without a status
+        return true;
+    }
+
+    /**
+     * Returns true if the Slack error code is known to be permanent
+     */
+    public static boolean isPermanentError(String errorCode) {
+        return errorCode != null && PERMANENT_ERRORS.contains(errorCode);
+    }
+}
@@ -0,0 +1,243 @@
+package slack.spool;
+
+import slack.message.Severity;
+import slack.model.SlackPayload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Durable write-ahead spool for outgoing messages
+ * Every message is appended to a memory-mapped segment file before it is sent and acknowledged
+ * once it has been delivered or given up for good; unacknowledged messages are replayed on startup
+ * Appends reserve space with a compare-and-set and copy straight into the mapping, without locks or syscalls
+ * The mapping is never forced to disk: records survive a crash or kill of the process, which leaves them
+ * in the OS page cache, but not an OS crash or power loss before the kernel has written them back
+ * Full segments are rolled; segments whose records are all acknowledged are deleted, and
+ * sparse ones are compacted by moving their remaining records forward, so disk use stays bounded
+ */
+public class MessageSpool {
+    private static final Logger LOGGER = Logger.getLogger(MessageSpool.class.getName());
+    private static final String FILE_PREFIX = "spool-";
+    private static final String FILE_SUFFIX = ".seg";
+    // A rolled segment is compacted once fewer than one in this many of its records is still live
+    private static final int COMPACTION_RATIO = 4;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final List<SpooledMessage> recovered = new ArrayList<>();
+    private volatile Segment head;
+
+    private MessageSpool(Path directory, int segmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Opens the spool in the directory, reading back every unacknowledged message
+     *
+     * @param directory directory holding the segment files, created if missing
+     * @param segmentBytes size of each segment file
+     * @param maxSegments segment files allowed at once; appends fail soft beyond that
+     */
+    public static MessageSpool open(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        Files.createDirectories(directory);
+        MessageSpool spool = new MessageSpool(directory, segmentBytes, maxSegments);
+        spool.load();
+        return spool;
+    }
+
+    /**
+     * Returns the messages found unacknowledged when the spool was opened, in spool order
+     * That is oldest first, except that records moved by compaction come after newer ones
+     * Each message is handed out only once
+     */
+    public synchronized List<SpooledMessage> recover() {
+        List<SpooledMessage> messages = new ArrayList<>(recovered);
+        recovered.clear();
+        return messages;
+    }
+
+    /**
+     * Appends an encoded request
+     * Returns null when the message cannot be spooled (too large or spool full); it is then
+     * still sent, just not durably
+     *
+     * @param expiresAt epoch milliseconds after which the message is no longer worth sending, 0 for never
+     */
+    public SpoolRecord append(String channelId, Severity severity, long expiresAt, SlackPayload payload) {
+        byte[] channel = channelId.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 2 + channel.length + payload.size();
+        if (Segment.recordLength(bodyLength) > segmentBytes) {
+            LOGGER.warning("Message of " + payload.size() + " bytes exceeds the spool segment size, not spooled");
+            return null;
+        }
+
+        while (true) {
+            Segment segment = head;
+            // Counted before reserving, so the segment is not retired while the record is being written
+            segment.writers.incrementAndGet();
+            try {
+                int offset = segment.reserve(bodyLength);
+                if (offset >= 0) {
+                    segment.write(offset, (byte) severity.ordinal(), expiresAt, channel, payload.buffer(),
+                            payload.size());
+                    SpoolRecord record = new SpoolRecord(this, segment, offset);
+                    segment.live.put(offset, record);
+                    return record;
+                }
+            } finally {
+                segment.writers.decrementAndGet();
+                // Acknowledgements that arrived meanwhile left retiring the segment to us
+                onAck(segment);
+            }
+            if (!roll(segment)) {
+                LOGGER.warning("Spool is full (" + maxSegments + " segments), message not spooled");
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of segment files in use
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the number of messages spooled and not yet acknowledged
+     */
+    public int getLiveRecords() {
+        int count = 0;
+        for (Segment segment : segments) {
+            count += segment.live.size();
+        }
+        return count;
+    }
+
+    /**
+     * Retires the segment once none of its records can be replayed or still be written
+     */
+    void onAck(Segment segment) {
+        if (segment.isRetirable()) {
+            retire(segment);
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(MessageSpool::isSegmentFile).sorted().toList();
+        }
+        long lastSequence = 0;
+        for (Path file : files) {
+            long sequence = sequenceOf(file);
+            lastSequence = Math.max(lastSequence, sequence);
+            Segment segment = Segment.open(file, sequence);
+            segment.scan(offset -> recovered.add(read(segment, offset)));
+            if (segment.live.isEmpty()) {
+                segment.delete();
+            } else {
+                segments.add(segment);
+            }
+        }
+        head = Segment.create(pathOf(lastSequence + 1), lastSequence + 1, segmentBytes);
+        segments.add(head);
+        if (!recovered.isEmpty()) {
+            LOGGER.info("Recovered " + recovered.size() + " unacknowledged messages from the spool");
+        }
+    }
+
+    private SpooledMessage read(Segment segment, int offset) {
+        SpoolRecord record = new SpoolRecord(this, segment, offset);
+        segment.live.put(offset, record);
+
+        ByteBuffer body = ByteBuffer.wrap(segment.bodyAt(offset));
+        byte[] channel = new byte[body.getShort()];
+        body.get(channel);
+        byte[] encoded = Arrays.copyOfRange(body.array(), body.position(), body.limit());
+
+        Severity[] severities = Severity.values();
+        int severity = segment.severityAt(offset);
+        return new SpooledMessage(new String(channel, StandardCharsets.UTF_8),
+                severity >= 0 && severity < severities.length ? severities[severity] : Severity.MEDIUM,
+                segment.expiresAt(offset), SlackPayload.wrap(encoded), record);
+    }
+
+    private synchronized boolean roll(Segment full) {
+        if (head != full) {
+            return true;
+        }
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        full.seal();
+        long sequence = full.sequence + 1;
+        try {
+            head = Segment.create(pathOf(sequence), sequence, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spool segment", e);
+        }
+        segments.add(head);
+        compactSparseSegments();
+        return true;
+    }
+
+    /**
+     * Moves the remaining records of sparse rolled segments into the head segment
+     * Segments with appends still finishing are left for a later roll
+     */
+    private void compactSparseSegments() {
+        for (Segment segment : segments) {
+            if (!segment.isSealed() || segment.writers.get() > 0
+                    || segment.live.size() * COMPACTION_RATIO >= segment.appended.get()) {
+                continue;
+            }
+            for (SpoolRecord record : segment.live.values()) {
+                if (!record.moveTo(head)) {
+                    return;
+                }
+            }
+            onAck(segment);
+        }
+    }
+
+    private synchronized void retire(Segment segment) {
+        if (!segment.isRetirable() || !segments.remove(segment)) {
+            return;
+        }
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            LOGGER.warning("Failed to delete spool segment " + segment.path + ": " + e.getMessage());
+        }
+    }
+
+    private Path pathOf(long sequence) {
+        return directory.resolve(String.format("%s%019d%s", FILE_PREFIX, sequence, FILE_SUFFIX));
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+}
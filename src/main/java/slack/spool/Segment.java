@@ -0,0 +1,213 @@
+package slack.spool;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-size, memory-mapped spool file
+ * Record layout: int body length, byte state, byte severity, int CRC32 of the body,
+ * long expiry in epoch milliseconds (0 for none), then the body, padded to a multiple of 4 bytes
+ * Writers reserve a region by compare-and-setting its length into the mapping, so every reserved region
+ * carries its length from the start and later records stay reachable even if one is never finished;
+ * the state byte is written last, so a record torn by a crash is never replayed
+ */
+final class Segment {
+    static final int HEADER_BYTES = 18;
+    static final byte STATE_LIVE = 1;
+    static final byte STATE_ACKED = 2;
+    static final int ALIGNMENT = 4;
+
+    private static final int STATE_OFFSET = 4;
+    private static final int SEVERITY_OFFSET = 5;
+    private static final int CRC_OFFSET = 6;
+    private static final int EXPIRES_OFFSET = 10;
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    final long sequence;
+    final Path path;
+    final int capacity;
+    final Map<Integer, SpoolRecord> live = new ConcurrentHashMap<>();
+    final AtomicInteger appended = new AtomicInteger();
+    // Appends and moves into this segment that may still add a live record; it is not retired while non-zero
+    final AtomicInteger writers = new AtomicInteger();
+
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger writePosition = new AtomicInteger();
+    private volatile boolean sealed;
+
+    private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+    }
+
+    /**
+     * Creates a new zero-filled segment file and maps it
+     */
+    static Segment create(Path path, long sequence, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    /**
+     * Maps an existing segment file; it only accepts acknowledgements from then on
+     */
+    static Segment open(Path path, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(sequence, path,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            segment.sealed = true;
+            return segment;
+        }
+    }
+
+    /**
+     * Reserves room for a record with the given body length, writing the length into the record header
+     * Returns the record offset, or -1 when the segment is full
+     */
+    int reserve(int bodyLength) {
+        if (bodyLength <= 0) {
+            throw new IllegalArgumentException("Record body must not be empty");
+        }
+        int length = recordLength(bodyLength);
+        while (!sealed) {
+            int offset = writePosition.get();
+            if (offset > capacity - length) {
+                return -1;
+            }
+            int claimed = (int) LENGTH.getVolatile(buffer, offset);
+            if (claimed == 0) {
+                if (LENGTH.compareAndSet(buffer, offset, 0, bodyLength)) {
+                    writePosition.compareAndSet(offset, offset + length);
+                    return offset;
+                }
+            } else {
+                // Claimed by another writer that has not moved the position on yet
+                writePosition.compareAndSet(offset, offset + recordLength(claimed));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes a record into a reserved region
+     * The body is the channel ID, length-prefixed, followed by the encoded request
+     */
+    void write(int offset, byte severity, long expiresAt, byte[] channelId, byte[] payload, int payloadLength) {
+        int bodyStart = offset + HEADER_BYTES;
+        buffer.putShort(bodyStart, (short) channelId.length);
+        buffer.put(bodyStart + 2, channelId);
+        buffer.put(bodyStart + 2 + channelId.length, payload, 0, payloadLength);
+        commit(offset, severity, expiresAt, 2 + channelId.length + payloadLength);
+    }
+
+    /**
+     * Writes a record body copied from another segment into a reserved region
+     */
+    void write(int offset, byte severity, long expiresAt, byte[] body) {
+        buffer.put(offset + HEADER_BYTES, body);
+        commit(offset, severity, expiresAt, body.length);
+    }
+
+    private void commit(int offset, byte severity, long expiresAt, int bodyLength) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + HEADER_BYTES, bodyLength));
+        buffer.put(offset + SEVERITY_OFFSET, severity);
+        buffer.putLong(offset + EXPIRES_OFFSET, expiresAt);
+        buffer.putInt(offset + CRC_OFFSET, (int) crc.getValue());
+        buffer.put(offset + STATE_OFFSET, STATE_LIVE);
+        appended.incrementAndGet();
+    }
+
+    void markAcked(int offset) {
+        buffer.put(offset + STATE_OFFSET, STATE_ACKED);
+    }
+
+    byte severityAt(int offset) {
+        return buffer.get(offset + SEVERITY_OFFSET);
+    }
+
+    long expiresAt(int offset) {
+        return buffer.getLong(offset + EXPIRES_OFFSET);
+    }
+
+    /**
+     * Returns the body of the record at the offset
+     */
+    byte[] bodyAt(int offset) {
+        byte[] body = new byte[buffer.getInt(offset)];
+        buffer.get(offset + HEADER_BYTES, body);
+        return body;
+    }
+
+    /**
+     * Walks the records reserved so far, calling the visitor for each complete live one
+     * A record reserved but never finished is skipped by its length; the scan stops at the first unreserved region
+     */
+    void scan(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset <= capacity - HEADER_BYTES) {
+            int bodyLength = buffer.getInt(offset);
+            if (bodyLength <= 0 || bodyLength > capacity - offset - HEADER_BYTES) {
+                break;
+            }
+            if (buffer.get(offset + STATE_OFFSET) == STATE_LIVE && checksumMatches(offset, bodyLength)) {
+                visitor.visit(offset);
+            }
+            appended.incrementAndGet();
+            offset += recordLength(bodyLength);
+        }
+        writePosition.set(offset);
+    }
+
+    /**
+     * Returns true when no record of the segment can be replayed or still appear: it is sealed, every record
+     * is acknowledged or moved, and no writer is adding one
+     */
+    boolean isRetirable() {
+        return sealed && writers.get() == 0 && live.isEmpty();
+    }
+
+    /**
+     * Returns the bytes a record with the given body length takes up, header and padding included
+     */
+    static int recordLength(int bodyLength) {
+        return (HEADER_BYTES + bodyLength + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private boolean checksumMatches(int offset, int bodyLength) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + HEADER_BYTES, bodyLength));
+        return (int) crc.getValue() == buffer.getInt(offset + CRC_OFFSET);
+    }
+
+    interface RecordVisitor {
+        void visit(int offset);
+    }
+}
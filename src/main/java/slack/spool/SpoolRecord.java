@@ -0,0 +1,68 @@
+package slack.spool;
+
+/**
+ * Handle to one spooled message
+ * Acknowledging it marks the record in place, so the message is never replayed;
+ * compaction may move the record to a newer segment before that happens
+ */
+public final class SpoolRecord {
+    private final MessageSpool spool;
+    private Segment segment;
+    private int offset;
+    private boolean acked;
+
+    SpoolRecord(MessageSpool spool, Segment segment, int offset) {
+        this.spool = spool;
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    /**
+     * Marks the message as handled; safe to call more than once
+     */
+    public void ack() {
+        Segment current;
+        synchronized (this) {
+            if (acked) {
+                return;
+            }
+            acked = true;
+            current = segment;
+            current.markAcked(offset);
+            current.live.remove(offset);
+        }
+        spool.onAck(current);
+    }
+
+    /**
+     * Writes the record into the target segment and retires the old copy
+     * Returns false when the target has no room left
+     */
+    synchronized boolean moveTo(Segment target) {
+        if (acked) {
+            return true;
+        }
+        byte[] body = segment.bodyAt(offset);
+        target.writers.incrementAndGet();
+        try {
+            int newOffset = target.reserve(body.length);
+            if (newOffset < 0) {
+                return false;
+            }
+            target.write(newOffset, segment.severityAt(offset), segment.expiresAt(offset), body);
+            target.live.put(newOffset, this);
+            moved(target, newOffset);
+            return true;
+        } finally {
+            target.writers.decrementAndGet();
+        }
+    }
+
+    private void moved(Segment target, int newOffset) {
+        // The new copy is complete before the old one is retired, so a crash in between only duplicates
+        segment.markAcked(offset);
+        segment.live.remove(offset);
+        segment = target;
+        offset = newOffset;
+    }
+}
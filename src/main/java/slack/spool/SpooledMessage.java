@@ -0,0 +1,52 @@
+package slack.spool;
+
+import slack.message.Severity;
+import slack.model.SlackPayload;
+
+/**
+ * A message read back from the spool at startup that was never acknowledged
+ */
+public final class SpooledMessage {
+    private final String channelId;
+    private final Severity severity;
+    private final long expiresAt;
+    private final SlackPayload payload;
+    private final SpoolRecord record;
+
+    SpooledMessage(String channelId, Severity severity, long expiresAt, SlackPayload payload, SpoolRecord record) {
+        this.channelId = channelId;
+        this.severity = severity;
+        this.expiresAt = expiresAt;
+        this.payload = payload;
+        this.record = record;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Returns when the message stops being worth delivering, in epoch milliseconds, or 0 if never
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Returns the request exactly as it was encoded before the restart
+     */
+    public SlackPayload getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns the handle to acknowledge once the message has been delivered
+     */
+    public SpoolRecord getRecord() {
+        return record;
+    }
+}
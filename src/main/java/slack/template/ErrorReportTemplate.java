@@ -1,5 +1,6 @@
 package slack.template;
 
+import slack.message.Severity;
 import slack.message.SlackMessage;
 import slack.message.SlackMessageBuilder;
 import java.time.LocalDateTime;
@@ -29,6 +30,7 @@ public class ErrorReportTemplate {
         String severityIcon = getSeverityIcon(severity);
         
         return SlackMessageBuilder.create()
+            .severity(Severity.parse(severity))
             .addHeader(severityIcon + " System Error Alert - " + systemName)
             .addSection("*Error Type:* `" + errorType + "`\n*Severity:* " + severityIcon + " " + severity)
             .addSection("*Timestamp:* " + timestamp + "\n*Error Count:* " + errorCount + " occurrences")
@@ -49,6 +51,49 @@ public class ErrorReportTemplate {
             .build();
     }
 
+    /**
+     * Creates an error report merging repeated occurrences of the same error
+     * 
+     * @param systemName name of the system experiencing errors
+     * @param errorType type of error that occurred
+     * @param errorMessage detailed error message of the latest occurrence
+     * @param errorCount number of occurrences merged into this report
+     * @param severity severity level of the error
+     * @param affectedServices services affected by any of the occurrences
+     * @param firstSeen time of the first merged occurrence
+     * @param lastSeen time of the latest merged occurrence
+     * @return SlackMessage containing the formatted error report
+     */
+    public static SlackMessage createCoalescedReport(String systemName, String errorType, String errorMessage,
+                                                   long errorCount, String severity, String affectedServices,
+                                                   LocalDateTime firstSeen, LocalDateTime lastSeen) {
+        
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+        String severityIcon = getSeverityIcon(severity);
+        
+        return SlackMessageBuilder.create()
+            .severity(Severity.parse(severity))
+            .addHeader(severityIcon + " Recurring Error Alert - " + systemName)
+            .addSection("*Error Type:* `" + errorType + "`\n*Severity:* " + severityIcon + " " + severity)
+            .addSection("*Occurrences:* " + errorCount + "\n*First Seen:* " + firstSeen.format(formatter)
+                + "\n*Last Seen:* " + lastSeen.format(formatter))
+            .addDivider()
+            .addSection("🔍 *Latest Error Details:*")
+            .addSection("```" + errorMessage + "```")
+            .addSection("*Affected Services:* " + affectedServices)
+            .addDivider()
+            .addSection("📋 *Recommended Actions:*")
+            .addSection(generateRecommendedActions(severity))
+            .addDivider()
+            .addContext("🔔 Alert System", "🔁 Coalesced Alert", "⏰ " + lastSeen.format(formatter))
+            .addButtons(
+                new SlackMessageBuilder.ButtonConfig("View Logs").url("https://logs.example.com").style("primary"),
+                new SlackMessageBuilder.ButtonConfig("Create Incident").url("https://incident.example.com").style("danger"),
+                new SlackMessageBuilder.ButtonConfig("System Status").url("https://status.example.com")
+            )
+            .build();
+    }
+
     /**
      * Gets the appropriate icon for error severity level
      */
@@ -99,6 +144,7 @@ public class ErrorReportTemplate {
         String severityIcon = getSeverityIcon(severity);
         
         return SlackMessageBuilder.create()
+            .severity(Severity.parse(severity))
             .addHeader(severityIcon + " Quick Alert - " + systemName)
             .addSection("*Error:* `" + errorType + "`")
             .addSection("*Severity:* " + severityIcon + " " + severity)
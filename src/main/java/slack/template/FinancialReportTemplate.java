@@ -1,5 +1,6 @@
 package slack.template;
 
+import slack.message.Severity;
 import slack.message.SlackMessage;
 import slack.message.SlackMessageBuilder;
 import java.time.LocalDateTime;
@@ -97,6 +98,7 @@ public class FinancialReportTemplate {
         double remainingBudget = budgetLimit - currentSpend;
         
         return SlackMessageBuilder.create()
+            .severity(Severity.parse(alertLevel))
             .addHeader(alertIcon + " Budget Alert - " + department)
             .addSection("*Category:* " + budgetCategory)
             .addSection("*Alert Level:* " + alertIcon + " " + alertLevel)
@@ -179,6 +181,7 @@ public class FinancialReportTemplate {
         String alertIcon = getAlertIcon(alertType);
         
         return SlackMessageBuilder.create()
+            .severity(Severity.parse(alertType))
             .addHeader(alertIcon + " Cash Flow Alert")
             .addSection("*Alert Type:* " + alertIcon + " " + alertType)
             .addSection("*Current Balance:* " + formatCurrency(currentCashBalance))
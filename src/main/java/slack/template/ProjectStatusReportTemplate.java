@@ -1,5 +1,6 @@
 package slack.template;
 
+import slack.message.Severity;
 import slack.message.SlackMessage;
 import slack.message.SlackMessageBuilder;
 import java.time.LocalDateTime;
@@ -106,6 +107,7 @@ public class ProjectStatusReportTemplate {
         String riskIcon = getRiskIcon(riskLevel);
         
         return SlackMessageBuilder.create()
+            .severity(Severity.parse(riskLevel))
             .addHeader(riskIcon + " Project Risk Alert - " + projectName)
             .addSection("*Risk Level:* " + riskIcon + " " + riskLevel)
             .addSection("*Impact:* " + impact)
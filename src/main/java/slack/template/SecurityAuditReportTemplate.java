@@ -1,5 +1,6 @@
 package slack.template;
 
+import slack.message.Severity;
 import slack.message.SlackMessage;
 import slack.message.SlackMessageBuilder;
 import java.time.LocalDateTime;
@@ -72,6 +73,7 @@ public class SecurityAuditReportTemplate {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss"));
         
         return SlackMessageBuilder.create()
+            .severity(Severity.CRITICAL)
             .addHeader("🚨 CRITICAL VULNERABILITY DETECTED")
             .addSection("*System:* " + systemName)
             .addSection("*Vulnerability:* " + vulnerabilityType)
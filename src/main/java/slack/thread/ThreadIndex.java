@@ -0,0 +1,221 @@
+package slack.thread;
+
+import slack.dedup.MessageFingerprint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Maps a correlation key and channel to the timestamp of the message that opened its thread
+ * Entries live in a fixed-size open-addressing table of 24-byte slots (key hash, expiry, packed ts)
+ * kept in a memory-mapped file, so threads survive restarts, or in a heap buffer when no file is given
+ * The table is split into independently locked stripes; a lookup hashes the key in place and
+ * reads a few adjacent slots, allocating only the returned ts
+ * Each use of a thread extends its lifetime; slots whose time-to-live has passed are reused, and when
+ * every slot a key may use is live the one closest to expiry is overwritten
+ */
+public class ThreadIndex {
+    private static final Logger LOGGER = Logger.getLogger(ThreadIndex.class.getName());
+    private static final int MAGIC = 0x534c5448;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 24;
+    private static final int EXPIRES_OFFSET = 8;
+    private static final int TS_OFFSET = 16;
+    private static final int STRIPES = 64;
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+    private static final int MICROS_DIGITS = 6;
+
+    private final ByteBuffer table;
+    private final int slotsPerStripe;
+    private final long ttlMs;
+    private final Object[] locks = new Object[STRIPES];
+
+    private ThreadIndex(ByteBuffer table, int slotsPerStripe, long ttlMs) {
+        this.table = table;
+        this.slotsPerStripe = slotsPerStripe;
+        this.ttlMs = ttlMs;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Opens the index stored in a file, creating the file if needed
+     * A file written with a different capacity is discarded
+     *
+     * @param file file holding the table
+     * @param capacity number of threads kept at most, rounded up to a power of two
+     * @param ttlMs how long a thread is kept after its last use
+     */
+    public static ThreadIndex open(Path file, int capacity, long ttlMs) throws IOException {
+        int slotsPerStripe = slotsPerStripe(capacity, ttlMs);
+        int size = HEADER_BYTES + STRIPES * slotsPerStripe * SLOT_BYTES;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() != size) {
+                if (channel.size() > 0) {
+                    LOGGER.warning("Thread index " + file + " has a different capacity, starting empty");
+                }
+                channel.truncate(0);
+            }
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (table.getInt(0) != MAGIC || table.getInt(4) != slotsPerStripe) {
+                table.putInt(4, slotsPerStripe);
+                table.putInt(0, MAGIC);
+            }
+            return new ThreadIndex(table, slotsPerStripe, ttlMs);
+        }
+    }
+
+    /**
+     * Creates an index that lives only as long as the process
+     */
+    public static ThreadIndex inMemory(int capacity, long ttlMs) {
+        int slotsPerStripe = slotsPerStripe(capacity, ttlMs);
+        return new ThreadIndex(ByteBuffer.allocate(HEADER_BYTES + STRIPES * slotsPerStripe * SLOT_BYTES),
+                slotsPerStripe, ttlMs);
+    }
+
+    /**
+     * Returns the ts of the thread opened for the key in the channel, or null if there is none
+     * A hit keeps the thread alive for another time-to-live
+     */
+    public String lookup(String channelId, String correlationKey) {
+        long key = keyOf(channelId, correlationKey);
+        long now = System.currentTimeMillis();
+        long packedTs;
+        synchronized (locks[stripeOf(key)]) {
+            int slot = find(key, now);
+            if (slot < 0) {
+                return null;
+            }
+            table.putLong(slot + EXPIRES_OFFSET, now + ttlMs);
+            packedTs = table.getLong(slot + TS_OFFSET);
+        }
+        return unpackTs(packedTs);
+    }
+
+    /**
+     * Remembers the ts of the message that opened the thread for the key in the channel
+     * Timestamps not in Slack's seconds.micros form are ignored
+     */
+    public void record(String channelId, String correlationKey, String ts) {
+        long packedTs = packTs(ts);
+        if (packedTs < 0) {
+            return;
+        }
+        long key = keyOf(channelId, correlationKey);
+        long now = System.currentTimeMillis();
+        int stripe = stripeOf(key);
+        synchronized (locks[stripe]) {
+            int first = HEADER_BYTES + stripe * slotsPerStripe * SLOT_BYTES;
+            int start = (int) key & (slotsPerStripe - 1);
+            int victim = -1;
+            boolean victimFree = false;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = first + ((start + probe) & (slotsPerStripe - 1)) * SLOT_BYTES;
+                long slotKey = table.getLong(slot);
+                long expiresAt = table.getLong(slot + EXPIRES_OFFSET);
+                boolean live = slotKey != EMPTY && expiresAt - now > 0;
+                if (slotKey == key) {
+                    victim = slot;
+                    break;
+                }
+                if (!live) {
+                    if (!victimFree) {
+                        victim = slot;
+                        victimFree = true;
+                    }
+                } else if (!victimFree
+                        && (victim < 0 || expiresAt - table.getLong(victim + EXPIRES_OFFSET) < 0)) {
+                    victim = slot;
+                }
+                if (slotKey == EMPTY) {
+                    // Slots are never emptied again, so the key cannot be further along
+                    break;
+                }
+            }
+            // Key last, so a slot torn by a crash is never matched with a half-written ts
+            table.putLong(victim + TS_OFFSET, packedTs);
+            table.putLong(victim + EXPIRES_OFFSET, now + ttlMs);
+            table.putLong(victim, key);
+        }
+    }
+
+    private int find(long key, long now) {
+        int stripe = stripeOf(key);
+        int first = HEADER_BYTES + stripe * slotsPerStripe * SLOT_BYTES;
+        int start = (int) key & (slotsPerStripe - 1);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = first + ((start + probe) & (slotsPerStripe - 1)) * SLOT_BYTES;
+            long slotKey = table.getLong(slot);
+            if (slotKey == key) {
+                return table.getLong(slot + EXPIRES_OFFSET) - now > 0 ? slot : -1;
+            }
+            if (slotKey == EMPTY) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int stripeOf(long key) {
+        return (int) (key >>> 58) & (STRIPES - 1);
+    }
+
+    private static long keyOf(String channelId, String correlationKey) {
+        long key = MessageFingerprint.ofKey(channelId, correlationKey);
+        return key == EMPTY ? 1L : key;
+    }
+
+    private static int slotsPerStripe(int capacity, long ttlMs) {
+        if (capacity <= 0 || ttlMs <= 0) {
+            throw new IllegalArgumentException("Thread index capacity and time-to-live must be positive");
+        }
+        return Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, capacity / STRIPES - 1)) << 1);
+    }
+
+    /**
+     * Packs a Slack ts such as 1712345678.123456 into one long of microseconds
+     * Returns -1 if the ts is not in that form
+     */
+    static long packTs(String ts) {
+        if (ts == null) {
+            return -1;
+        }
+        int dot = ts.indexOf('.');
+        if (dot <= 0 || dot > 12 || ts.length() - dot - 1 != MICROS_DIGITS) {
+            return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < ts.length(); i++) {
+            char c = ts.charAt(i);
+            if (i == dot) {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            packed = packed * 10 + (c - '0');
+        }
+        return packed;
+    }
+
+    static String unpackTs(long packed) {
+        StringBuilder ts = new StringBuilder(20).append(packed / 1_000_000L).append('.');
+        String micros = Long.toString(packed % 1_000_000L);
+        for (int i = micros.length(); i < MICROS_DIGITS; i++) {
+            ts.append('0');
+        }
+        return ts.append(micros).toString();
+    }
+}
@@ -0,0 +1,76 @@
+package slack.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport stub that answers after a configurable delay
+ * Simulates network and Slack latency without blocking any thread while waiting
+ */
+public class LatencyStubTransport implements SlackTransport {
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private final SlackTransport delegate;
+    private final long minLatencyMs;
+    private final long maxLatencyMs;
+
+    /**
+     * Creates a stub answering successfully after a fixed delay
+     */
+    public LatencyStubTransport(long latencyMs) {
+        this(new RecordingTransport(false), latencyMs, latencyMs);
+    }
+
+    /**
+     * Creates a stub answering successfully after a random delay between the given bounds
+     */
+    public LatencyStubTransport(long minLatencyMs, long maxLatencyMs) {
+        this(new RecordingTransport(false), minLatencyMs, maxLatencyMs);
+    }
+
+    /**
+     * Creates a stub that delays the responses of another transport
+     */
+    public LatencyStubTransport(SlackTransport delegate, long minLatencyMs, long maxLatencyMs) {
+        if (minLatencyMs < 0 || maxLatencyMs < minLatencyMs) {
+            throw new IllegalArgumentException("Latency bounds must satisfy 0 <= min <= max");
+        }
+        this.delegate = delegate;
+        this.minLatencyMs = minLatencyMs;
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        long delay = minLatencyMs == maxLatencyMs
+                ? minLatencyMs
+                : ThreadLocalRandom.current().nextLong(minLatencyMs, maxLatencyMs + 1);
+
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        TIMER.schedule(() -> delegate.send(request).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(response);
+            }
+        }), delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    public SlackTransport getDelegate() {
+        return delegate;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "slack-latency-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,92 @@
+package slack.transport;
+
+import slack.model.SlackResponse;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory transport that records every request and answers immediately
+ * Lets the whole send pipeline run at full speed in tests and benchmarks without a network
+ */
+public class RecordingTransport implements SlackTransport {
+    private final Queue<TransportRequest> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final boolean recordRequests;
+    private volatile Function<TransportRequest, TransportResponse> responder = this::okResponse;
+
+    /**
+     * Creates a transport that keeps every request for later inspection
+     */
+    public RecordingTransport() {
+        this(true);
+    }
+
+    /**
+     * Creates a transport that optionally only counts requests, for long-running load tests
+     */
+    public RecordingTransport(boolean recordRequests) {
+        this.recordRequests = recordRequests;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        requestCount.incrementAndGet();
+        if (recordRequests) {
+            requests.add(request);
+        }
+        try {
+            return CompletableFuture.completedFuture(responder.apply(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Replaces the function that produces responses, e.g. to simulate Slack errors
+     * The responder may throw to simulate an I/O failure
+     */
+    public void setResponder(Function<TransportRequest, TransportResponse> responder) {
+        this.responder = responder;
+    }
+
+    /**
+     * Returns a successful response echoing the request channel and a fresh message timestamp
+     */
+    public TransportResponse okResponse(TransportRequest request) {
+        long seq = sequence.incrementAndGet();
+        SlackResponse response = new SlackResponse(true);
+        response.setChannel(request.getChannelId());
+        response.setTs(System.currentTimeMillis() / 1000 + "." + String.format("%06d", seq % 1_000_000));
+        return new TransportResponse(HttpURLConnection.HTTP_OK, response);
+    }
+
+    /**
+     * Returns the recorded requests in the order they were sent
+     */
+    public List<TransportRequest> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * Returns the number of requests received, including unrecorded ones
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Forgets all recorded requests and resets the counter
+     */
+    public void clear() {
+        requests.clear();
+        requestCount.set(0);
+    }
+}
@@ -0,0 +1,228 @@
+package slack.transport;
+
+import slack.model.SlackPayload;
+import slack.model.SlackResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Default HTTP transport backed by a single shared java.net.http.HttpClient
+ * Keeps connections alive between sends and multiplexes requests over HTTP/2 when available
+ * A single instance can be shared by any number of SlackClient instances
+ */
+public class SlackHttpTransport implements SlackTransport {
+    // Buffers the whole body, then parses it from the bytes without decoding it to a String first
+    // Responses are a few KB, so streaming them would only move a blocking read onto a dispatcher thread
+    private static final HttpResponse.BodyHandler<SlackResponse> RESPONSE_HANDLER = responseInfo ->
+            HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), SlackResponseReader::read);
+
+    private final HttpClient httpClient;
+    private final Semaphore connectionPermits;
+    private final Queue<Runnable> waitingExchanges = new ConcurrentLinkedQueue<>();
+    private final int maxConnections;
+
+    private SlackHttpTransport(Builder builder) {
+        this.maxConnections = builder.maxConnections;
+        this.connectionPermits = new Semaphore(builder.maxConnections, true);
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
+                .version(builder.http2Enabled ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(builder.connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (builder.executor != null) {
+            httpClientBuilder.executor(builder.executor);
+        }
+        this.httpClient = httpClientBuilder.build();
+    }
+
+    /**
+     * Sends a request, measuring how long it waited for a connection and for the response headers
+     * Cancelling the returned future abandons the request, even one still waiting for a connection
+     * The wait for a free connection counts against the request timeout
+     */
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        ExchangeTimings timings = new ExchangeTimings();
+        HttpResponse.BodyHandler<SlackResponse> timedHandler = responseInfo -> {
+            timings.headersAt = System.nanoTime();
+            return RESPONSE_HANDLER.apply(responseInfo);
+        };
+        CompletableFuture<HttpResponse<SlackResponse>> exchange = exchange(request.getUri(), request.getBotToken(),
+                request.getPayload(), request.getTimeoutMs(), timedHandler, timings);
+        CompletableFuture<TransportResponse> response = exchange.thenApply(httpResponse -> new TransportResponse(
+                httpResponse.statusCode(), httpResponse.body(), httpResponse.headers().map(),
+                timings.sentAt - timings.submittedAt, timings.headersAt - timings.sentAt));
+        response.whenComplete((transportResponse, error) -> {
+            if (response.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return response;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> exchange(URI uri, String botToken, SlackPayload payload,
+                                                           int timeoutMs, HttpResponse.BodyHandler<T> bodyHandler,
+                                                           ExchangeTimings timings) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload.buffer(), 0, payload.size()));
+        if (botToken != null) {
+            builder.header("Authorization", "Bearer " + botToken);
+        }
+        HttpRequest request = builder.build();
+
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        // Claimed by the exchange when it gets a connection, or by the timer giving up on the wait
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable exchange = () -> {
+            if (!claimed.compareAndSet(false, true) || result.isDone()) {
+                releaseConnection();
+                return;
+            }
+            timings.sentAt = System.nanoTime();
+            long remainingMs = timeoutMs - TimeUnit.NANOSECONDS.toMillis(timings.sentAt - timings.submittedAt);
+            HttpRequest timed = remainingMs < timeoutMs
+                    ? HttpRequest.newBuilder(request, (name, value) -> true)
+                            .timeout(Duration.ofMillis(Math.max(1L, remainingMs))).build()
+                    : request;
+            CompletableFuture<HttpResponse<T>> sent = httpClient.sendAsync(timed, bodyHandler);
+            sent.whenComplete((response, error) -> {
+                releaseConnection();
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                } else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+        };
+
+        if (connectionPermits.tryAcquire()) {
+            exchange.run();
+        } else {
+            waitingExchanges.add(exchange);
+            CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    result.completeExceptionally(new HttpTimeoutException(
+                            "No connection became free within " + timeoutMs + " ms"));
+                }
+            });
+            startWaitingExchanges();
+        }
+        return result;
+    }
+
+    private void releaseConnection() {
+        connectionPermits.release();
+        startWaitingExchanges();
+    }
+
+    private void startWaitingExchanges() {
+        while (!waitingExchanges.isEmpty() && connectionPermits.tryAcquire()) {
+            Runnable next = waitingExchanges.poll();
+            if (next == null) {
+                connectionPermits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests this transport allows
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Returns the number of requests waiting for a free connection
+     */
+    public int getWaitingRequests() {
+        return waitingExchanges.size();
+    }
+
+    /**
+     * Returns the number of requests currently holding a connection
+     */
+    public int getActiveConnections() {
+        return maxConnections - connectionPermits.availablePermits();
+    }
+
+    /**
+     * Points in time of one exchange, in System.nanoTime()
+     */
+    private static final class ExchangeTimings {
+        final long submittedAt = System.nanoTime();
+        volatile long sentAt;
+        volatile long headersAt;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxConnections = 16;
+        private boolean http2Enabled = true;
+        private int connectTimeoutMs = 30000;
+        private Executor executor;
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder http2Enabled(boolean http2Enabled) {
+            this.http2Enabled = http2Enabled;
+            return this;
+        }
+
+        public Builder connectTimeoutMs(int connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Sets the executor that completes responses; null, the default, keeps the HttpClient's own pool
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public SlackHttpTransport build() {
+            if (maxConnections <= 0) {
+                throw new IllegalArgumentException("Max connections must be positive");
+            }
+            if (connectTimeoutMs <= 0) {
+                throw new IllegalArgumentException("Connect timeout must be positive");
+            }
+            return new SlackHttpTransport(this);
+        }
+    }
+}
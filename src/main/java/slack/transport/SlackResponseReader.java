@@ -0,0 +1,102 @@
+package slack.transport;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import slack.model.SlackResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull-parser for Slack Web API responses
+ * Works on a body already received in full; it does not stream from the connection
+ * Pulls only ok, error, warning, ts and channel from the body and skips everything else, such as
+ * the echo of the posted message, without building strings or objects for it
+ * Incoming webhooks answer with plain text instead: "ok", or an error code such as channel_not_found
+ */
+public final class SlackResponseReader {
+    private static final int MAX_PLAIN_TEXT_LENGTH = 64;
+
+    private SlackResponseReader() {
+    }
+
+    /**
+     * Reads a response body
+     * Returns null when the body is neither a JSON object nor a webhook answer, e.g. an HTML error page
+     */
+    public static SlackResponse read(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        if (body[0] != '{' && body[0] != ' ' && body[0] != '\n' && body[0] != '\r' && body[0] != '\t') {
+            return readPlainText(body);
+        }
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return null;
+            }
+            SlackResponse response = new SlackResponse();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "ok":
+                        if (reader.peek() == JsonToken.BOOLEAN) {
+                            response.setOk(reader.nextBoolean());
+                        } else {
+                            reader.skipValue();
+                        }
+                        break;
+                    case "error":
+                        response.setError(nextString(reader));
+                        break;
+                    case "warning":
+                        response.setWarning(nextString(reader));
+                        break;
+                    case "ts":
+                        response.setTs(nextString(reader));
+                        break;
+                    case "channel":
+                        response.setChannel(nextString(reader));
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            return response;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a webhook answer: a single lower-case word, "ok" on success
+     */
+    private static SlackResponse readPlainText(byte[] body) {
+        int length = body.length;
+        while (length > 0 && (body[length - 1] == '\n' || body[length - 1] == '\r' || body[length - 1] == ' ')) {
+            length--;
+        }
+        if (length == 0 || length > MAX_PLAIN_TEXT_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            byte b = body[i];
+            if ((b < 'a' || b > 'z') && b != '_') {
+                return null;
+            }
+        }
+        String text = new String(body, 0, length, StandardCharsets.US_ASCII);
+        return "ok".equals(text) ? new SlackResponse(true) : new SlackResponse(false, text);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+}
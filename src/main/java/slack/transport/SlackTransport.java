@@ -0,0 +1,17 @@
+package slack.transport;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers a serialized request to Slack and reports the response
+ * SlackClient owns serialization, retries and queueing; a transport only moves bytes
+ * Implementations must be thread-safe and must not block the calling thread
+ */
+public interface SlackTransport {
+
+    /**
+     * Sends a single request
+     * The future completes with the response for any HTTP status, and exceptionally on I/O failures
+     */
+    CompletableFuture<TransportResponse> send(TransportRequest request);
+}
@@ -0,0 +1,61 @@
+package slack.transport;
+
+import slack.model.SlackPayload;
+
+import java.net.URI;
+
+/**
+ * A single request handed to a SlackTransport
+ * Immutable, so the same instance can be sent again on retry
+ */
+public class TransportRequest {
+    private final URI uri;
+    private final String botToken;
+    private final String channelId;
+    private final SlackPayload payload;
+    private final int timeoutMs;
+
+    public TransportRequest(URI uri, String botToken, String channelId, SlackPayload payload, int timeoutMs) {
+        this.uri = uri;
+        this.botToken = botToken;
+        this.channelId = channelId;
+        this.payload = payload;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Returns the bot token for the Authorization header, or null when none should be sent
+     */
+    public String getBotToken() {
+        return botToken;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * Returns the encoded request body
+     */
+    public SlackPayload getPayload() {
+        return payload;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "TransportRequest{" +
+                "uri=" + uri +
+                ", channelId='" + channelId + '\'' +
+                ", payloadBytes=" + (payload != null ? payload.size() : 0) +
+                ", timeoutMs=" + timeoutMs +
+                '}';
+    }
+}
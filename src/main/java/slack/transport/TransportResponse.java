@@ -0,0 +1,85 @@
+package slack.transport;
+
+import slack.model.SlackResponse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Response returned by a SlackTransport
+ * Holds the HTTP status, the selected response headers and the parsed Slack response body
+ */
+public class TransportResponse {
+    private final int statusCode;
+    private final SlackResponse response;
+    private final Map<String, List<String>> headers;
+    private final long connectionWaitNanos;
+    private final long firstByteNanos;
+
+    public TransportResponse(int statusCode, SlackResponse response) {
+        this(statusCode, response, Collections.emptyMap());
+    }
+
+    public TransportResponse(int statusCode, SlackResponse response, Map<String, List<String>> headers) {
+        this(statusCode, response, headers, -1, -1);
+    }
+
+    /**
+     * Creates a response carrying the timings of its exchange
+     *
+     * @param connectionWaitNanos time spent waiting for a free connection, -1 if not measured
+     * @param firstByteNanos time from sending the request until the response headers arrived, -1 if not measured
+     */
+    public TransportResponse(int statusCode, SlackResponse response, Map<String, List<String>> headers,
+                             long connectionWaitNanos, long firstByteNanos) {
+        this.statusCode = statusCode;
+        this.response = response;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.connectionWaitNanos = connectionWaitNanos;
+        this.firstByteNanos = firstByteNanos;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the parsed Slack response, or null when the body was not a Slack API response
+     */
+    public SlackResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Returns the first value of a response header, ignoring case, or null when absent
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Returns how long the request waited for a free connection, or -1 if the transport does not measure it
+     */
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    /**
+     * Returns the time until the response headers arrived, or -1 if the transport does not measure it
+     */
+    public long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TransportResponse{" +
+                "statusCode=" + statusCode +
+                ", response=" + response +
+                '}';
+    }
+}
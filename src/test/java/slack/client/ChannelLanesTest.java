@@ -0,0 +1,105 @@
+package slack.client;
+
+import org.junit.jupiter.api.Test;
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChannelLanesTest {
+    private final List<PendingDelivery> started = new ArrayList<>();
+
+    @Test
+    void deliveriesOfAChannelStartOneAtATimeInOrder() {
+        ChannelLanes lanes = new ChannelLanes(started::add);
+        lanes.enqueue(delivery("C1", "A", Severity.MEDIUM));
+        lanes.enqueue(delivery("C1", "B", Severity.MEDIUM));
+        lanes.enqueue(delivery("C1", "C", Severity.MEDIUM));
+
+        assertEquals(List.of("A"), startedTexts());
+        assertEquals(3, lanes.pending("C1"));
+
+        started.get(0).result.complete(new SlackResponse(true));
+        assertEquals(List.of("A", "B"), startedTexts());
+        // A failed delivery frees the lane just like a successful one
+        started.get(1).result.completeExceptionally(new IllegalStateException("boom"));
+        assertEquals(List.of("A", "B", "C"), startedTexts());
+    }
+
+    @Test
+    void channelsDoNotWaitForEachOther() {
+        ChannelLanes lanes = new ChannelLanes(started::add);
+        lanes.enqueue(delivery("C1", "A1", Severity.MEDIUM));
+        lanes.enqueue(delivery("C1", "A2", Severity.MEDIUM));
+        lanes.enqueue(delivery("C2", "B1", Severity.MEDIUM));
+        lanes.enqueue(delivery("C3", "C1", Severity.MEDIUM));
+
+        assertEquals(List.of("A1", "B1", "C1"), startedTexts());
+        assertEquals(3, lanes.activeLanes());
+    }
+
+    @Test
+    void drainedLanesAreRetiredAndRecreatedOnDemand() {
+        ChannelLanes lanes = new ChannelLanes(started::add);
+        lanes.enqueue(delivery("C1", "A", Severity.MEDIUM));
+        finishAll();
+
+        assertEquals(0, lanes.activeLanes());
+        assertEquals(0, lanes.pending("C1"));
+
+        lanes.enqueue(delivery("C1", "B", Severity.MEDIUM));
+        assertEquals(List.of("A", "B"), startedTexts());
+        assertEquals(1, lanes.activeLanes());
+    }
+
+    @Test
+    void synchronouslyCompletingDeliveriesDrainWithoutGrowingTheStack() {
+        ChannelLanes lanes = new ChannelLanes(delivery -> {
+            started.add(delivery);
+            delivery.result.complete(new SlackResponse(true));
+        });
+        for (int i = 0; i < 100_000; i++) {
+            lanes.enqueue(delivery("C1", "M" + i, Severity.MEDIUM));
+        }
+
+        assertEquals(100_000, started.size());
+        assertEquals(0, lanes.activeLanes());
+    }
+
+    @Test
+    void severityNeverReordersALane() {
+        ChannelLanes lanes = new ChannelLanes(started::add);
+        for (int i = 0; i < 3; i++) {
+            lanes.enqueue(delivery("C1", "LOW" + i, Severity.LOW));
+        }
+        lanes.enqueue(delivery("C1", "CRIT", Severity.CRITICAL));
+
+        finishAll();
+
+        assertEquals(List.of("LOW0", "LOW1", "LOW2", "CRIT"), startedTexts());
+    }
+
+    private void finishAll() {
+        for (int i = 0; i < started.size(); i++) {
+            started.get(i).result.complete(new SlackResponse(true));
+        }
+    }
+
+    private List<String> startedTexts() {
+        List<String> texts = new ArrayList<>();
+        for (PendingDelivery delivery : started) {
+            texts.add(delivery.message.getText());
+        }
+        return texts;
+    }
+
+    private static PendingDelivery delivery(String channelId, String text, Severity severity) {
+        SlackMessage message = SlackMessageBuilder.create().text(text).severity(severity).build();
+        return new PendingDelivery(message, channelId);
+    }
+}
@@ -0,0 +1,59 @@
+package slack.client;
+
+import org.junit.jupiter.api.Test;
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DigestBufferTest {
+    private final List<Boolean> mayWaitFlags = new CopyOnWriteArrayList<>();
+
+    private final DigestBuffer.Sink sink = (message, channelId, mayWait, onUndelivered) -> {
+        mayWaitFlags.add(mayWait);
+        return CompletableFuture.completedFuture(new SlackResponse(true));
+    };
+
+    @Test
+    void timerFlushDoesNotWaitForRoomInTheQueue() throws Exception {
+        DigestBuffer digest = new DigestBuffer(10, 20, sink);
+
+        digest.add(message("disk at 80%"), "C1", null);
+        digest.add(message("disk at 81%"), "C1", null).get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of(false), mayWaitFlags);
+    }
+
+    @Test
+    void fullDigestIsSentFromTheCallerThatFilledIt() throws Exception {
+        DigestBuffer digest = new DigestBuffer(2, 60_000, sink);
+
+        digest.add(message("disk at 80%"), "C1", null);
+        digest.add(message("disk at 81%"), "C1", null).get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of(true), mayWaitFlags);
+    }
+
+    @Test
+    void acceptsOnlyMessagesExplicitlyMarkedMediumOrLow() {
+        DigestBuffer digest = new DigestBuffer(10, 60_000, sink);
+
+        assertFalse(digest.accepts(SlackMessageBuilder.create().addSection("untagged").build()));
+        assertTrue(digest.accepts(SlackMessageBuilder.create().addSection("tagged").severity(Severity.MEDIUM).build()));
+        assertTrue(digest.accepts(message("tagged")));
+        assertFalse(digest.accepts(SlackMessageBuilder.create().addSection("urgent").severity(Severity.HIGH).build()));
+    }
+
+    private static SlackMessage message(String text) {
+        return SlackMessageBuilder.create().addSection(text).severity(Severity.LOW).build();
+    }
+}
@@ -0,0 +1,99 @@
+package slack.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import slack.config.OverflowPolicy;
+import slack.config.SlackConfig;
+import slack.exception.SlackQueueFullException;
+import slack.model.SlackResponse;
+import slack.transport.RecordingTransport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorReportCoalescerTest {
+    private SlackClient client;
+
+    @AfterEach
+    void closeClient() {
+        client.shutdown(Duration.ZERO);
+    }
+
+    @Test
+    void flushFailsFastInsteadOfBlockingTheSchedulerOnAFullQueue() throws Exception {
+        client = new SlackClient(SlackConfig.builder()
+                .botToken("xoxb-test")
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false)
+                .transport(request -> new CompletableFuture<>())
+                .maxQueuedMessages(1)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .queueOfferTimeoutMs(30_000)
+                .build());
+        ErrorReportCoalescer coalescer = new ErrorReportCoalescer(client, 1000);
+
+        // The leading report takes the only slot and never completes
+        coalescer.report("billing", "Timeout", "upstream timed out", 1, "HIGH", "api");
+        CompletableFuture<SlackResponse> merged =
+                coalescer.report("billing", "Timeout", "upstream timed out", 1, "HIGH", "api");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> merged.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SlackQueueFullException.class, failure.getCause());
+        SlackExecutors.scheduler().schedule(() -> { }, 0, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void burstOfOneErrorIsSentAsTheLeadingReportPlusOneSummary() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        client = new SlackClient(SlackConfig.builder()
+                .botToken("xoxb-test")
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false)
+                .transport(transport)
+                .build());
+        ErrorReportCoalescer coalescer = new ErrorReportCoalescer(client, 2000);
+
+        CompletableFuture<SlackResponse> leading =
+                coalescer.report("billing", "Timeout", "upstream timed out", 1, "HIGH", "api");
+        CompletableFuture<SlackResponse> merged = null;
+        for (int i = 1; i < 10_000; i++) {
+            merged = coalescer.report("billing", "Timeout", "upstream timed out", 1, "HIGH", "api");
+        }
+
+        leading.get(5, TimeUnit.SECONDS);
+        assertEquals(1, transport.getRequestCount());
+        merged.get(10, TimeUnit.SECONDS);
+        assertEquals(2, transport.getRequestCount());
+        assertNotSame(leading.get(), merged.get());
+    }
+
+    @Test
+    void missingSeverityIsMergedAsMedium() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        client = new SlackClient(SlackConfig.builder()
+                .botToken("xoxb-test")
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false)
+                .transport(transport)
+                .build());
+        ErrorReportCoalescer coalescer = new ErrorReportCoalescer(client, 60_000);
+
+        coalescer.report("billing", "Timeout", "upstream timed out", 1, null, "api").get(5, TimeUnit.SECONDS);
+        CompletableFuture<SlackResponse> merged =
+                coalescer.report("billing", "Timeout", "upstream timed out", 1, "medium", "api");
+
+        assertFalse(merged.isDone());
+        assertEquals(1, coalescer.getOpenGroups());
+        assertEquals(1, transport.getRequestCount());
+        assertTrue(transport.getRequests().get(0).getPayload().toString().contains("MEDIUM"));
+    }
+}
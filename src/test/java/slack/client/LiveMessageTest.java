@@ -0,0 +1,66 @@
+package slack.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import slack.config.OverflowPolicy;
+import slack.config.SlackConfig;
+import slack.exception.SlackQueueFullException;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+import slack.transport.RecordingTransport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiveMessageTest {
+    private SlackClient client;
+
+    @AfterEach
+    void closeClient() {
+        client.shutdown(Duration.ZERO);
+    }
+
+    @Test
+    void updatesFailFastInsteadOfBlockingOnAFullQueue() throws Exception {
+        RecordingTransport answering = new RecordingTransport();
+        AtomicInteger requests = new AtomicInteger();
+        client = new SlackClient(SlackConfig.builder()
+                .botToken("xoxb-test")
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false)
+                // Answers the first post, then never again
+                .transport(request -> requests.incrementAndGet() == 1
+                        ? answering.send(request)
+                        : new CompletableFuture<>())
+                .maxQueuedMessages(1)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .queueOfferTimeoutMs(30_000)
+                .liveUpdateIntervalMs(200)
+                .build());
+
+        LiveMessage live = client.sendLiveMessage(message("Deploy started"), "C1");
+        live.posted().get(5, TimeUnit.SECONDS);
+        client.sendMessageAsync(message("Takes the only slot"), "C2");
+
+        assertQueueFull(live.update(message("Deploy 50%")));
+        // Spaced by the interval, so this one is sent from the shared scheduler
+        assertQueueFull(live.update(message("Deploy 90%")));
+        SlackExecutors.scheduler().schedule(() -> { }, 0, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS);
+    }
+
+    private static void assertQueueFull(CompletableFuture<SlackResponse> update) {
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> update.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SlackQueueFullException.class, failure.getCause());
+    }
+
+    private static SlackMessage message(String text) {
+        return SlackMessageBuilder.create().addSection(text).build();
+    }
+}
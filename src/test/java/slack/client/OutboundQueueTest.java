@@ -0,0 +1,100 @@
+package slack.client;
+
+import org.junit.jupiter.api.Test;
+import slack.config.OverflowPolicy;
+import slack.exception.SlackQueueFullException;
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundQueueTest {
+    private final List<PendingDelivery> accepted = new ArrayList<>();
+
+    @Test
+    void finishingDeliveriesOutOfOrderStaysLinear() {
+        // Removing each finished delivery by search would take some 10^10 steps here
+        int count = 200_000;
+        OutboundQueue queue = new OutboundQueue(count, Long.MAX_VALUE, OverflowPolicy.REJECT, 0, 0, accepted::add);
+        for (int i = 0; i < count; i++) {
+            queue.offer(delivery("C1", Severity.MEDIUM), false);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = count - 1; i > 0; i--) {
+                accepted.get(i).result.complete(new SlackResponse(true));
+            }
+        });
+
+        assertEquals(1, queue.stats().getDepth());
+        assertEquals(List.of(accepted.get(0)), queue.outstanding());
+    }
+
+    @Test
+    void dropOldestSkipsDeliveriesAlreadyInFlight() {
+        OutboundQueue queue = new OutboundQueue(3, Long.MAX_VALUE, OverflowPolicy.DROP_OLDEST, 0, 0, accepted::add);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(delivery("C" + i, Severity.MEDIUM), false);
+        }
+        accepted.get(0).started.set(true);
+
+        queue.offer(delivery("C3", Severity.MEDIUM), false);
+        queue.offer(delivery("C4", Severity.MEDIUM), false);
+
+        assertFalse(accepted.get(0).result.isDone());
+        assertDropped(accepted.get(1));
+        assertDropped(accepted.get(2));
+        assertEquals(List.of("C0", "C3", "C4"), channels(queue.outstanding()));
+    }
+
+    @Test
+    void coalescedSummaryListsTheFoldedMessages() {
+        OutboundQueue queue = new OutboundQueue(1, Long.MAX_VALUE, OverflowPolicy.COALESCE, 0, 0, accepted::add);
+        queue.offer(delivery("C1", Severity.MEDIUM), false);
+        for (Severity severity : List.of(Severity.LOW, Severity.HIGH, Severity.MEDIUM)) {
+            SlackMessage report = SlackMessageBuilder.create().addHeader("Disk full on db-1").addSection("97% used")
+                    .severity(severity).build();
+            report.setTemplateType("ErrorReportTemplate");
+            queue.offer(new PendingDelivery(report, "C2"), false);
+        }
+        queue.offer(delivery("C2", Severity.LOW), false);
+
+        accepted.get(0).result.complete(new SlackResponse(true));
+
+        SlackMessage summary = accepted.get(1).message;
+        String listing = summary.getBlocks().get(1).getText().getText();
+        assertEquals(Severity.HIGH, summary.getSeverity());
+        assertTrue(summary.getBlocks().get(0).getText().getText().contains("4 notifications were coalesced"));
+        assertEquals("• 3× [HIGH] ErrorReportTemplate: Disk full on db-1\n• 1× [LOW] queued", listing);
+    }
+
+    private static void assertDropped(PendingDelivery delivery) {
+        ExecutionException dropped = assertThrows(ExecutionException.class, delivery.result::get);
+        assertInstanceOf(SlackQueueFullException.class, dropped.getCause());
+        assertTrue(delivery.started.get());
+    }
+
+    private static List<String> channels(List<PendingDelivery> deliveries) {
+        List<String> channels = new ArrayList<>();
+        for (PendingDelivery delivery : deliveries) {
+            channels.add(delivery.channelId);
+        }
+        return channels;
+    }
+
+    private static PendingDelivery delivery(String channelId, Severity severity) {
+        return new PendingDelivery(SlackMessageBuilder.create().text("queued").severity(severity).build(), channelId);
+    }
+}
@@ -0,0 +1,141 @@
+package slack.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import slack.config.DispatcherMode;
+import slack.config.SlackConfig;
+import slack.exception.SlackException;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+import slack.transport.RecordingTransport;
+import slack.transport.SlackHttpTransport;
+import slack.transport.TransportRequest;
+import slack.transport.TransportResponse;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackClientPoolTest {
+    private final RecordingTransport answering = new RecordingTransport();
+    private final AtomicInteger stalled = new AtomicInteger();
+    private SlackClientPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.shutdown(Duration.ZERO);
+        }
+    }
+
+    @Test
+    void stalledWorkspaceCannotHoldUpAnother() throws Exception {
+        pool = SlackClientPool.builder()
+                .workspace("stuck", workspace("xoxb-stuck"))
+                .workspace("healthy", workspace("xoxb-healthy"))
+                .transport(request -> "xoxb-stuck".equals(request.getBotToken())
+                        ? stall()
+                        : answering.send(request))
+                .maxInFlightPerWorkspace(2)
+                .build();
+
+        List<CompletableFuture<SlackResponse>> stuck = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            stuck.add(pool.sendMessageAsync("stuck", message("stuck" + i), "C" + i));
+        }
+        List<CompletableFuture<SlackResponse>> healthy = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            healthy.add(pool.sendMessageAsync("healthy", message("healthy" + i), "C" + i));
+        }
+
+        CompletableFuture.allOf(healthy.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(20, answering.getRequestCount());
+        assertEquals(2, stalled.get());
+        stuck.forEach(send -> assertFalse(send.isDone()));
+        for (TransportRequest request : answering.getRequests()) {
+            assertEquals("xoxb-healthy", request.getBotToken());
+        }
+    }
+
+    @Test
+    void routesByWorkspaceNameAndBotToken() {
+        pool = SlackClientPool.builder()
+                .workspace("first", workspace("xoxb-first"))
+                .workspace("second", workspace("xoxb-second"))
+                .transport(answering)
+                .build();
+
+        assertSame(pool.client("second"), pool.clientForToken("xoxb-second"));
+        assertEquals(List.of("first", "second"), new ArrayList<>(pool.getWorkspaces()));
+        assertThrows(IllegalArgumentException.class, () -> pool.client("third"));
+        assertThrows(IllegalArgumentException.class, () -> pool.clientForToken("xoxb-third"));
+        ExecutionException unknown = assertThrows(ExecutionException.class,
+                () -> pool.sendMessageAsync("third", message("lost"), "C1").get(1, TimeUnit.SECONDS));
+        assertInstanceOf(SlackException.class, unknown.getCause());
+    }
+
+    @Test
+    void directModeDeliversThroughTheDefaultHttpTransport() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat.postMessage", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            byte[] body = "{\"ok\":true,\"channel\":\"C1\",\"ts\":\"1712345678.000100\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            pool = SlackClientPool.builder()
+                    .workspace("main", SlackConfig.builder()
+                            .botToken("xoxb-main")
+                            .defaultChannelId("C1")
+                            .apiUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/chat.postMessage")
+                            .rateLimitEnabled(false)
+                            .build())
+                    .dispatcherMode(DispatcherMode.DIRECT)
+                    .http2Enabled(false)
+                    .build();
+
+            assertInstanceOf(SlackHttpTransport.class, pool.getTransport());
+            assertTrue(pool.sendMessage("main", message("direct")));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private CompletableFuture<TransportResponse> stall() {
+        stalled.incrementAndGet();
+        return new CompletableFuture<>();
+    }
+
+    private static SlackConfig workspace(String botToken) {
+        return SlackConfig.builder()
+                .botToken(botToken)
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false)
+                .build();
+    }
+
+    private static SlackMessage message(String text) {
+        return SlackMessageBuilder.create().addSection("#" + text).build();
+    }
+}
@@ -0,0 +1,417 @@
+package slack.client;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import slack.config.OverflowPolicy;
+import slack.config.SlackConfig;
+import slack.exception.SlackException;
+import slack.exception.SlackQueueFullException;
+import slack.message.Severity;
+import slack.message.SlackMessage;
+import slack.message.SlackMessageBuilder;
+import slack.model.SlackResponse;
+import slack.retry.CircuitBreaker;
+import slack.template.MessageTemplate;
+import slack.transport.LatencyStubTransport;
+import slack.transport.RecordingTransport;
+import slack.transport.SlackTransport;
+import slack.transport.TransportRequest;
+import slack.transport.TransportResponse;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackClientTest {
+    private static final Pattern MARKER = Pattern.compile("#(\\w+)");
+
+    private final RecordingTransport transport = new RecordingTransport();
+    private SlackClient client;
+
+    @AfterEach
+    void closeClient() {
+        if (client != null) {
+            client.shutdown(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    void criticalOvertakesOtherChannelsButKeepsItsChannelsOrder() throws Exception {
+        client = new SlackClient(config()
+                .transport(new LatencyStubTransport(transport, 50, 50))
+                .maxInFlightRequests(1)
+                .build());
+
+        List<CompletableFuture<SlackResponse>> sends = new ArrayList<>();
+        sends.add(client.sendMessageAsync(message("first", Severity.LOW), "C1"));
+        sends.add(client.sendMessageAsync(message("queued", Severity.LOW), "C1"));
+        sends.add(client.sendMessageAsync(message("behind", Severity.CRITICAL), "C1"));
+        for (int i = 2; i <= 4; i++) {
+            sends.add(client.sendMessageAsync(message("other" + i, Severity.LOW), "C" + i));
+        }
+        sends.add(client.sendMessageAsync(message("urgent", Severity.CRITICAL), "C5"));
+        awaitAll(sends);
+
+        List<String> sent = sentTexts();
+        assertEquals("first", sent.get(0));
+        assertEquals("urgent", sent.get(1));
+        assertTrue(sent.indexOf("queued") < sent.indexOf("behind"), sent.toString());
+    }
+
+    @Test
+    void halfOpenProbeThatThrowsSynchronouslyIsCountedAsFailed() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        SlackTransport throwing = request -> {
+            if (failing.get()) {
+                throw new IllegalStateException("connection refused");
+            }
+            return transport.send(request);
+        };
+        client = new SlackClient(config().transport(throwing)
+                .retryAttempts(1)
+                .circuitBreakerEnabled(true)
+                .circuitMinimumCalls(1)
+                .circuitOpenDurationMs(50)
+                .circuitHalfOpenProbes(1)
+                .build());
+
+        assertThrows(SlackException.class, () -> client.sendMessage(message("first", Severity.HIGH), "C1"));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState());
+
+        Thread.sleep(80);
+        assertThrows(SlackException.class, () -> client.sendMessage(message("probe", Severity.HIGH), "C1"));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakerState());
+
+        failing.set(false);
+        Thread.sleep(80);
+        assertTrue(client.sendMessage(message("recovered", Severity.HIGH), "C1"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakerState());
+    }
+
+    @Test
+    void digestModeHoldsBackOnlyExplicitlyLowAsyncMessages() throws Exception {
+        client = new SlackClient(config().transport(transport).digestEnabled(true).digestIntervalMs(60_000).build());
+
+        CompletableFuture<SlackResponse> tagged = client.sendMessageAsync(message("tagged", Severity.LOW), "C1");
+        client.sendMessageAsync(SlackMessageBuilder.create().addSection("#untagged").build(), "C1")
+                .get(2, TimeUnit.SECONDS);
+        assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> assertTrue(client.sendMessage(message("sync", Severity.LOW), "C1")));
+
+        assertFalse(tagged.isDone());
+        assertEquals(List.of("untagged", "sync"), sentTexts());
+    }
+
+    @Test
+    void burstOfCorrelatedMessagesLandsInOneThread() throws Exception {
+        client = new SlackClient(config().transport(new LatencyStubTransport(transport, 30, 30)).build());
+
+        List<CompletableFuture<SlackResponse>> sends = new ArrayList<>();
+        for (String text : List.of("opened", "update", "resolved")) {
+            SlackMessage message = SlackMessageBuilder.create().addSection("#" + text).correlationKey("inc-1").build();
+            sends.add(client.sendMessageAsync(message, "C1"));
+        }
+        awaitAll(sends);
+
+        String parentTs = sends.get(0).get().getTs();
+        List<TransportRequest> requests = transport.getRequests();
+        assertEquals(List.of("opened", "update", "resolved"), sentTexts());
+        assertFalse(requests.get(0).getPayload().toString().contains("thread_ts"));
+        assertTrue(requests.get(1).getPayload().toString().contains("\"thread_ts\":\"" + parentTs + "\""));
+        assertTrue(requests.get(2).getPayload().toString().contains("\"thread_ts\":\"" + parentTs + "\""));
+    }
+
+    @Test
+    void duplicateStaysSuppressedWhenTheFirstSendMayHaveLanded() throws Exception {
+        client = new SlackClient(config()
+                .transport(request -> CompletableFuture.failedFuture(new IOException("read timed out")))
+                .retryAttempts(1)
+                .dedupWindowMs(60_000)
+                .build());
+
+        assertThrows(SlackException.class, () -> client.sendMessage(message("deploy", Severity.HIGH), "C1"));
+        assertFalse(client.sendMessage(message("deploy", Severity.HIGH), "C1"));
+    }
+
+    @Test
+    void duplicateIsForgottenWhenSlackRejectedTheFirstSend() {
+        transport.setResponder(request -> new TransportResponse(200, new SlackResponse(false, "channel_not_found")));
+        client = new SlackClient(config().transport(transport).dedupWindowMs(60_000).build());
+
+        SlackException first = assertThrows(SlackException.class,
+                () -> client.sendMessage(message("deploy", Severity.HIGH), "C1"));
+        SlackException second = assertThrows(SlackException.class,
+                () -> client.sendMessage(message("deploy", Severity.HIGH), "C1"));
+        assertEquals("channel_not_found", first.getErrorCode());
+        assertEquals("channel_not_found", second.getErrorCode());
+    }
+
+    @Test
+    void duplicateIsForgottenWhenTheQueueTurnedTheFirstSendAway() throws Exception {
+        client = new SlackClient(config()
+                .transport(request -> new CompletableFuture<>())
+                .maxQueuedMessages(1)
+                .overflowPolicy(OverflowPolicy.REJECT)
+                .dedupWindowMs(60_000)
+                .build());
+        client.sendMessageAsync(message("takes the only slot", Severity.HIGH), "C1");
+
+        CompletableFuture<SlackResponse> rejected = client.sendMessageAsync(message("deploy", Severity.HIGH), "C2");
+        CompletableFuture<SlackResponse> again = client.sendMessageAsync(message("deploy", Severity.HIGH), "C2");
+
+        ExecutionException first = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        ExecutionException second = assertThrows(ExecutionException.class, () -> again.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(SlackQueueFullException.class, first.getCause());
+        assertInstanceOf(SlackQueueFullException.class, second.getCause());
+    }
+
+    @Test
+    void sheddingSparesUntaggedMessagesAndLeavesAFullQueueToThePolicy() throws Exception {
+        client = new SlackClient(config()
+                .transport(request -> new CompletableFuture<>())
+                .maxQueuedMessages(10)
+                .queueOfferTimeoutMs(100)
+                .build());
+        List<CompletableFuture<SlackResponse>> untagged = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            untagged.add(client.sendMessageAsync(SlackMessageBuilder.create().addSection("#m" + i).build(), "C" + i));
+        }
+
+        CompletableFuture<SlackResponse> low = client.sendMessageAsync(message("low", Severity.LOW), "C1");
+        ExecutionException shed = assertThrows(ExecutionException.class, () -> low.get(1, TimeUnit.SECONDS));
+        assertTrue(shed.getCause().getMessage().startsWith("Shed"), shed.getCause().getMessage());
+
+        untagged.add(client.sendMessageAsync(SlackMessageBuilder.create().addSection("#last").build(), "C9"));
+        assertEquals(10, client.getQueueStats().getDepth());
+        untagged.forEach(send -> assertFalse(send.isDone()));
+
+        CompletableFuture<SlackResponse> blocked = client.sendMessageAsync(message("crit", Severity.CRITICAL), "C1");
+        ExecutionException full = assertThrows(ExecutionException.class, () -> blocked.get(1, TimeUnit.SECONDS));
+        assertTrue(full.getCause().getMessage().startsWith("Timed out waiting for room"), full.getCause().getMessage());
+    }
+
+    @Test
+    void spoolAcknowledgesFailedMessagesAndKeepsOnlyThoseAbandonedByShutdown(@TempDir Path spoolDirectory)
+            throws Exception {
+        SlackClient failing = new SlackClient(config()
+                .transport(request -> CompletableFuture.failedFuture(new IOException("connection reset")))
+                .retryAttempts(1)
+                .spoolDirectory(spoolDirectory)
+                .build());
+        assertThrows(SlackException.class, () -> failing.sendMessage(message("failed", Severity.HIGH), "C1"));
+        failing.shutdown(Duration.ZERO);
+
+        SlackClient hanging = new SlackClient(config()
+                .transport(request -> new CompletableFuture<>())
+                .spoolDirectory(spoolDirectory)
+                .build());
+        hanging.sendMessageAsync(message("abandoned", Severity.HIGH), "C1");
+        hanging.shutdown(Duration.ZERO);
+
+        client = new SlackClient(config().transport(transport).spoolDirectory(spoolDirectory).build());
+        for (int i = 0; i < 50 && transport.getRequestCount() == 0; i++) {
+            Thread.sleep(20);
+        }
+        client.shutdown(Duration.ofSeconds(1));
+        client = null;
+
+        assertEquals(List.of("abandoned"), sentTexts());
+    }
+
+    @Test
+    void retryAfterPausesTheChannelForEveryPendingSendButNotOtherChannels() throws Exception {
+        AtomicBoolean rateLimited = new AtomicBoolean(true);
+        List<Long> sentAt = new CopyOnWriteArrayList<>();
+        transport.setResponder(request -> {
+            sentAt.add(System.nanoTime());
+            if (rateLimited.getAndSet(false)) {
+                return new TransportResponse(429, new SlackResponse(false, "ratelimited"),
+                        Map.of("Retry-After", List.of("1")));
+            }
+            return transport.okResponse(request);
+        });
+        client = new SlackClient(config().transport(transport).build());
+
+        CompletableFuture<SlackResponse> limited = client.sendMessageAsync(message("limited", Severity.HIGH), "C1");
+        for (int i = 0; i < 50 && sentAt.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<SlackResponse> sameChannel = client.sendMessageAsync(message("same", Severity.HIGH), "C1");
+        CompletableFuture<SlackResponse> otherChannel = client.sendMessageAsync(message("other", Severity.HIGH), "C2");
+        otherChannel.get(500, TimeUnit.MILLISECONDS);
+        assertFalse(sameChannel.isDone());
+        awaitAll(List.of(limited, sameChannel));
+
+        List<String> sent = sentTexts();
+        assertEquals(List.of("limited", "other"), sent.subList(0, 2));
+        assertEquals(4, sent.size());
+        for (int i = 2; i < 4; i++) {
+            assertTrue(sentAt.get(i) - sentAt.get(0) >= TimeUnit.MILLISECONDS.toNanos(900), "sent before the pause ended");
+        }
+    }
+
+    @Test
+    void webhookChannelsPostToTheirUrlWithoutTokenOrChannel() throws Exception {
+        String hook = "https://hooks.slack.com/services/T000/B000/secret";
+        transport.setResponder(request -> new TransportResponse(200, new SlackResponse(true)));
+        client = new SlackClient(SlackConfig.builder()
+                .webhook("C9", hook)
+                .defaultChannelId("C9")
+                .rateLimitEnabled(false)
+                .transport(transport)
+                .build());
+
+        assertTrue(client.sendMessage(message("hooked", Severity.HIGH), "C9"));
+        SlackException noToken = assertThrows(SlackException.class,
+                () -> client.sendMessage(message("api", Severity.HIGH), "C1"));
+
+        TransportRequest request = transport.getRequests().get(0);
+        assertEquals(hook, request.getUri().toString());
+        assertNull(request.getBotToken());
+        assertFalse(request.getPayload().toString().contains("\"channel\""), request.getPayload().toString());
+        assertEquals("Bot token is not configured", noToken.getMessage());
+        assertEquals(1, transport.getRequestCount());
+    }
+
+    @Test
+    void webhookErrorsAreFinal() {
+        transport.setResponder(request -> new TransportResponse(404, new SlackResponse(false, "no_service")));
+        client = new SlackClient(config()
+                .webhook("C9", "https://hooks.slack.com/services/T000/B000/revoked")
+                .transport(transport)
+                .build());
+
+        SlackException failure = assertThrows(SlackException.class,
+                () -> client.sendMessage(message("hooked", Severity.HIGH), "C9"));
+
+        assertEquals("no_service", failure.getErrorCode());
+        assertEquals(1, transport.getRequestCount());
+    }
+
+    @Test
+    void attemptTimeoutsShrinkToFitTheRemainingDeadline() throws Exception {
+        List<Integer> timeouts = new CopyOnWriteArrayList<>();
+        // Every attempt runs into its timeout, like a Slack that never answers
+        SlackTransport silent = request -> {
+            timeouts.add(request.getTimeoutMs());
+            return CompletableFuture.supplyAsync(() -> {
+                throw new CompletionException(new HttpTimeoutException("request timed out"));
+            }, CompletableFuture.delayedExecutor(request.getTimeoutMs(), TimeUnit.MILLISECONDS));
+        };
+        client = new SlackClient(config().transport(silent)
+                .timeoutMs(30_000)
+                .retryAttempts(3)
+                .retryDelayMs(10)
+                .build());
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<SlackResponse> send = client.sendMessageAsync(
+                SlackMessageBuilder.create().addSection("#late").ttlMs(3000).build(), "C1");
+        assertThrows(ExecutionException.class, () -> send.get(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals(3, timeouts.size(), timeouts.toString());
+        assertTrue(timeouts.get(0) <= 1000, timeouts.toString());
+        for (int i = 1; i < timeouts.size(); i++) {
+            assertTrue(timeouts.get(i) <= timeouts.get(i - 1), timeouts.toString());
+        }
+        assertTrue(elapsedMs < 3300, "gave up after " + elapsedMs + " ms");
+    }
+
+    @Test
+    void lifecycleOfARetriedTemplateIsRecordedAsJfrEvents(@TempDir Path recordingDirectory) throws Exception {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        transport.setResponder(request -> failing.getAndSet(false)
+                ? new TransportResponse(500, null)
+                : transport.okResponse(request));
+        client = new SlackClient(config().transport(transport).retryDelayMs(10).build());
+        MessageTemplate template = () -> message("templated", Severity.HIGH);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("slack.TemplateRender", "slack.QueueWait", "slack.Serialization",
+                    "slack.HttpAttempt", "slack.RetryWait")) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            client.sendTemplateAsync(template, "C7").get(5, TimeUnit.SECONDS);
+            recording.stop();
+            Path file = recordingDirectory.resolve("slack.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> attempts = eventsNamed(events, "slack.HttpAttempt");
+        assertEquals(1, eventsNamed(events, "slack.TemplateRender").size());
+        assertEquals(1, eventsNamed(events, "slack.QueueWait").size());
+        assertEquals(1, eventsNamed(events, "slack.Serialization").size());
+        assertEquals(1, eventsNamed(events, "slack.RetryWait").size());
+        assertEquals(2, attempts.size());
+        assertEquals("http_500", attempts.get(0).getString("outcome"));
+        assertEquals("ok", attempts.get(1).getString("outcome"));
+        assertEquals("C7", attempts.get(1).getString("channel"));
+        assertEquals(2, attempts.get(1).getInt("attempt"));
+        assertEquals("http_500", eventsNamed(events, "slack.RetryWait").get(0).getString("reason"));
+        assertEquals("HIGH", eventsNamed(events, "slack.QueueWait").get(0).getString("severity"));
+    }
+
+    private static SlackConfig.Builder config() {
+        return SlackConfig.builder()
+                .botToken("xoxb-test")
+                .defaultChannelId("C1")
+                .rateLimitEnabled(false);
+    }
+
+    private static SlackMessage message(String text, Severity severity) {
+        return SlackMessageBuilder.create().addSection("#" + text).severity(severity).build();
+    }
+
+    private static void awaitAll(List<CompletableFuture<SlackResponse>> sends) throws Exception {
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                named.add(event);
+            }
+        }
+        named.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        return named;
+    }
+
+    private List<String> sentTexts() {
+        List<String> texts = new ArrayList<>();
+        for (TransportRequest request : transport.getRequests()) {
+            Matcher marker = MARKER.matcher(request.getPayload().toString());
+            texts.add(marker.find() ? marker.group(1) : null);
+        }
+        return texts;
+    }
+}
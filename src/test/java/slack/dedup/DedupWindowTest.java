@@ -0,0 +1,94 @@
+package slack.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DedupWindowTest {
+
+    @Test
+    void suppressesAKeyWithinTheWindow() {
+        DedupWindow window = new DedupWindow(60_000, 1024);
+
+        assertTrue(window.tryRecord(42L));
+        assertFalse(window.tryRecord(42L));
+        assertTrue(window.tryRecord(43L));
+    }
+
+    @Test
+    void acceptsAKeyAgainOnceTheWindowHasPassed() throws InterruptedException {
+        DedupWindow window = new DedupWindow(50, 1024);
+        assertTrue(window.tryRecord(42L));
+
+        Thread.sleep(80);
+
+        assertTrue(window.tryRecord(42L));
+        assertFalse(window.tryRecord(42L));
+    }
+
+    @Test
+    void forgottenKeyMayBeSentAgainWithoutLosingItsNeighbours() {
+        DedupWindow window = new DedupWindow(60_000, 64);
+        // Same stripe and home slot, so the second key probes past the first
+        long first = 1L << 60;
+        long second = first + 64;
+        assertTrue(window.tryRecord(first));
+        assertTrue(window.tryRecord(second));
+
+        window.forget(first);
+
+        assertFalse(window.tryRecord(second));
+        assertTrue(window.tryRecord(first));
+        assertFalse(window.tryRecord(first));
+    }
+
+    @Test
+    void zeroIsAnOrdinaryKey() {
+        DedupWindow window = new DedupWindow(60_000, 1024);
+
+        assertTrue(window.tryRecord(0L));
+        assertFalse(window.tryRecord(0L));
+    }
+
+    @Test
+    void overflowForgetsTheOldestKeysInsteadOfGrowing() {
+        DedupWindow window = new DedupWindow(60_000, 64);
+        for (long key = 1; key <= 100_000; key++) {
+            assertTrue(window.tryRecord(key << 20));
+        }
+
+        assertFalse(window.tryRecord(100_000L << 20));
+        assertTrue(window.tryRecord(1L << 20));
+    }
+
+    @Test
+    void lookupsAllocateNothing() {
+        DedupWindow window = new DedupWindow(60_000, 1 << 16);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        for (long key = 1; key <= 100_000; key++) {
+            window.tryRecord(key * 0x9E3779B97F4A7C15L);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (long key = 1; key <= 1_000_000; key++) {
+            window.tryRecord(key * 0x9E3779B97F4A7C15L);
+            window.forget(key * 0x9E3779B97F4A7C15L);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // One object per call would be at least 16MB
+        assertTrue(allocated < 64 * 1024, allocated + " bytes allocated");
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new DedupWindow(0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new DedupWindow(1000, 0));
+    }
+}
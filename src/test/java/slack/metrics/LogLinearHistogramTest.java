@@ -0,0 +1,143 @@
+package slack.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LogLinearHistogramTest {
+
+    @Test
+    void everyValueFallsInABucketAtMostOneSixteenthWide() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            assertBucketHolds(value);
+        }
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1023, 1024, Long.MAX_VALUE}) {
+            assertBucketHolds(value);
+        }
+        assertEquals(LogLinearHistogram.BUCKETS - 1, LogLinearHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void bucketsTileTheRangeWithoutGaps() {
+        assertEquals(0, LogLinearHistogram.lowerBoundOf(0));
+        for (int i = 1; i < LogLinearHistogram.BUCKETS; i++) {
+            assertEquals(LogLinearHistogram.upperBoundOf(i - 1) + 1, LogLinearHistogram.lowerBoundOf(i));
+        }
+        assertEquals(Long.MAX_VALUE, LogLinearHistogram.upperBoundOf(LogLinearHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    void snapshotSummarizesTheRecordedValues() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500_500, snapshot.getSum());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.getMean());
+        long p50 = snapshot.getValueAtQuantile(0.5);
+        assertTrue(p50 >= 500 && p50 <= 500 + 500 / 16, "p50 " + p50);
+        long p99 = snapshot.getValueAtQuantile(0.99);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99 " + p99);
+        assertEquals(1000, snapshot.getValueAtQuantile(1.0));
+        assertEquals(1000, sum(snapshot.getBucketCounts()));
+    }
+
+    @Test
+    void snapshotKeepsOnlyNonEmptyBucketsInAscendingOrder() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(5);
+        histogram.record(5);
+        histogram.record(-3);
+        histogram.record(1_000_000);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(3, snapshot.getBucketUpperBounds().length);
+        assertEquals(0, snapshot.getBucketUpperBounds()[0]);
+        assertEquals(5, snapshot.getBucketUpperBounds()[1]);
+        assertTrue(snapshot.getBucketUpperBounds()[2] >= 1_000_000);
+        assertArrayEquals(new long[]{1, 2, 1}, snapshot.getBucketCounts());
+        assertEquals(1_000_010, snapshot.getSum());
+    }
+
+    @Test
+    void emptySnapshotReportsZeros() {
+        HistogramSnapshot snapshot = new LogLinearHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getMean());
+        assertEquals(0, snapshot.getValueAtQuantile(0.99));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtQuantile(1.5));
+    }
+
+    @Test
+    void concurrentRecordingLosesNoValues() throws InterruptedException {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 5000);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(400_000, snapshot.getCount());
+        assertEquals(400_000, sum(snapshot.getBucketCounts()));
+        assertEquals(4999, snapshot.getMax());
+    }
+
+    @Test
+    void recordingAllocatesNothing() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        for (long value = 0; value < 100_000; value++) {
+            histogram.record(value * 31);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (long value = 0; value < 1_000_000; value++) {
+            histogram.record(value * 31);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // One object per call would be at least 16MB
+        assertTrue(allocated < 64 * 1024, allocated + " bytes allocated");
+    }
+
+    private static void assertBucketHolds(long value) {
+        int index = LogLinearHistogram.indexOf(value);
+        long lower = LogLinearHistogram.lowerBoundOf(index);
+        long upper = LogLinearHistogram.upperBoundOf(index);
+        assertTrue(lower <= value && value <= upper, value + " outside [" + lower + ", " + upper + "]");
+        assertTrue(upper - lower <= lower / 16, "bucket of " + value + " too wide");
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package slack.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackRateLimiterTest {
+    private static final String POST_MESSAGE = "chat.postMessage";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void channelsAreLimitedIndependently() {
+        SlackRateLimiter limiter = new SlackRateLimiter(RateLimit.perSecond(1, 1), null);
+
+        assertEquals(0, limiter.reserveChannel(POST_MESSAGE, "C1"));
+        assertWaitsAboutOneSecond(limiter.reserveChannel(POST_MESSAGE, "C1"));
+        assertEquals(0, limiter.reserveChannel(POST_MESSAGE, "C2"));
+        assertEquals(0, limiter.reserveChannel("chat.update", "C1"));
+        assertEquals(0, limiter.reserveMethod(POST_MESSAGE));
+    }
+
+    @Test
+    void methodLimitIsSharedByAllChannels() {
+        SlackRateLimiter limiter = new SlackRateLimiter(null, RateLimit.perSecond(1, 1));
+
+        assertEquals(0, limiter.reserveChannel(POST_MESSAGE, "C1"));
+        assertEquals(0, limiter.reserveMethod(POST_MESSAGE));
+        assertEquals(0, limiter.reserveChannel(POST_MESSAGE, "C2"));
+        assertWaitsAboutOneSecond(limiter.reserveMethod(POST_MESSAGE));
+    }
+
+    @Test
+    void retryAfterPausesEvenAnUnlimitedChannel() {
+        SlackRateLimiter limiter = new SlackRateLimiter(null, null);
+
+        limiter.pauseChannel(POST_MESSAGE, "C1", SECOND);
+
+        assertWaitsAboutOneSecond(limiter.pausedNanos(POST_MESSAGE, "C1"));
+        assertWaitsAboutOneSecond(limiter.reserveChannel(POST_MESSAGE, "C1"));
+        assertEquals(0, limiter.pausedNanos(POST_MESSAGE, "C2"));
+        assertEquals(0, limiter.reserveChannel(POST_MESSAGE, "C2"));
+    }
+
+    @Test
+    void methodPauseHoldsBackEveryChannel() {
+        SlackRateLimiter limiter = new SlackRateLimiter(RateLimit.perSecond(10, 5), RateLimit.perSecond(50, 10));
+
+        limiter.pauseMethod(POST_MESSAGE, SECOND);
+
+        assertWaitsAboutOneSecond(limiter.pausedNanos(POST_MESSAGE, "C1"));
+        assertWaitsAboutOneSecond(limiter.pausedNanos(POST_MESSAGE, "C2"));
+        assertWaitsAboutOneSecond(limiter.reserveMethod(POST_MESSAGE));
+        assertEquals(0, limiter.pausedNanos("chat.update", "C1"));
+    }
+
+    @Test
+    void tracksOneBucketPerChannelAndMethod() {
+        SlackRateLimiter limiter = new SlackRateLimiter(RateLimit.perMinute(60, 1), RateLimit.perSecond(1, 1));
+
+        limiter.reserveChannel(POST_MESSAGE, "C1");
+        limiter.reserveChannel(POST_MESSAGE, "C2");
+        limiter.reserveMethod(POST_MESSAGE);
+
+        assertEquals(3, limiter.getTrackedBuckets());
+    }
+
+    private static void assertWaitsAboutOneSecond(long waitNanos) {
+        assertTrue(waitNanos > SECOND / 2 && waitNanos <= SECOND, "waited " + waitNanos + "ns");
+    }
+}
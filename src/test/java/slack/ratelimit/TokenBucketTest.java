@@ -0,0 +1,102 @@
+package slack.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long T0 = TimeUnit.SECONDS.toNanos(1000);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void reservesTheBurstAtOnceAndThenOnePermitPerInterval() {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10, 3), T0);
+
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0 + INTERVAL, bucket.reserve(T0));
+        assertEquals(T0 + 2 * INTERVAL, bucket.reserve(T0));
+    }
+
+    @Test
+    void idleTimeRefillsTheBurstButNeverBeyondIt() {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10, 2), T0);
+        long later = T0 + TimeUnit.SECONDS.toNanos(60);
+
+        assertEquals(later, bucket.reserve(later));
+        assertEquals(later, bucket.reserve(later));
+        assertEquals(later + INTERVAL, bucket.reserve(later));
+    }
+
+    @Test
+    void tryAcquireTakesOnlyPermitsUsableNow() {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10, 2), T0);
+
+        assertTrue(bucket.tryAcquire(T0));
+        assertTrue(bucket.tryAcquire(T0));
+        assertFalse(bucket.tryAcquire(T0));
+        assertFalse(bucket.tryAcquire(T0 + INTERVAL - 1));
+        assertTrue(bucket.tryAcquire(T0 + INTERVAL));
+    }
+
+    @Test
+    void pauseHoldsBackPermitsUntilItEnds() {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10, 3), T0);
+        long until = T0 + TimeUnit.SECONDS.toNanos(5);
+
+        bucket.pauseUntil(until);
+        bucket.pauseUntil(T0 + TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(until - T0, bucket.pausedNanos(T0));
+        assertEquals(0, bucket.pausedNanos(until));
+        assertFalse(bucket.tryAcquire(T0));
+        assertEquals(until, bucket.reserve(T0));
+    }
+
+    @Test
+    void bucketIsIdleOnceItHasRefilled() {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(10, 1), T0);
+        assertTrue(bucket.isIdle(T0));
+
+        bucket.reserve(T0);
+
+        assertFalse(bucket.isIdle(T0));
+        assertTrue(bucket.isIdle(T0 + INTERVAL));
+    }
+
+    @Test
+    void concurrentReservationsNeverShareASlot() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(RateLimit.perSecond(1000, 1), T0);
+        int threads = 4;
+        int perThread = 10_000;
+        long[][] slots = new long[threads][perThread];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long[] mine = slots[t];
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    mine[i] = bucket.reserve(T0);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Set<Long> distinct = new HashSet<>();
+        for (long[] mine : slots) {
+            for (long slot : mine) {
+                distinct.add(slot);
+            }
+        }
+        assertEquals(threads * perThread, distinct.size());
+    }
+}
@@ -0,0 +1,103 @@
+package slack.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    void staysClosedUntilEnoughCallsFail() {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 0, 4, 60_000, 1);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        for (int i = 0; i < 5; i++) {
+            breaker.recordSuccess(FAST);
+        }
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertTrue(breaker.isCallNotPermitted());
+    }
+
+    @Test
+    void slowSuccessesCountAsUnhealthy() {
+        CircuitBreaker breaker = new CircuitBreaker(1.0, 100, 3, 60_000, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.recordSuccess(TimeUnit.MILLISECONDS.toNanos(150));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenHandsOutLimitedProbesAndClosesWhenAllSucceed() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+        Thread.sleep(80);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.isCallNotPermitted());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertTrue(breaker.isCallNotPermitted());
+
+        breaker.recordSuccess(FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.recordSuccess(FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        // The failures that opened the circuit no longer count
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeOpensTheCircuitAgain() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.recordSuccess(FAST);
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        Thread.sleep(80);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, 0, 1, 1000, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1.5, 0, 1, 1000, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0.5, 0, 0, 1000, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0.5, 0, 1, 1000, 0));
+    }
+
+    private static CircuitBreaker openBreaker(int probes) {
+        CircuitBreaker breaker = new CircuitBreaker(0.5, 0, 2, 50, probes);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,44 @@
+package slack.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExponentialBackoffTest {
+
+    @Test
+    void ceilingDoublesPerRetryUpToTheMaximum() {
+        ExponentialBackoff backoff = new ExponentialBackoff(100, 1000);
+
+        assertEquals(100, backoff.ceilingMs(1));
+        assertEquals(200, backoff.ceilingMs(2));
+        assertEquals(400, backoff.ceilingMs(3));
+        assertEquals(800, backoff.ceilingMs(4));
+        assertEquals(1000, backoff.ceilingMs(5));
+        assertEquals(1000, backoff.ceilingMs(Integer.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, new ExponentialBackoff(Long.MAX_VALUE / 4, Long.MAX_VALUE).ceilingMs(10));
+    }
+
+    @Test
+    void delaysAreJitteredAcrossTheWholeRange() {
+        ExponentialBackoff backoff = new ExponentialBackoff(100, 1000);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 10_000; i++) {
+            long delay = backoff.delayMs(3);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+
+        assertTrue(min >= 0 && min < 40, "min " + min);
+        assertTrue(max <= 400 && max > 360, "max " + max);
+    }
+
+    @Test
+    void rejectsInconsistentDelays() {
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialBackoff(-1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new ExponentialBackoff(200, 100));
+    }
+}
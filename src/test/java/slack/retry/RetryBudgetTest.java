@@ -0,0 +1,52 @@
+package slack.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void retriesAreEarnedAsAFractionOfFirstAttempts() {
+        RetryBudget budget = new RetryBudget(0.1, 0);
+        for (int i = 0; i < 100; i++) {
+            budget.onFirstAttempt();
+        }
+
+        assertEquals(10, budget.getAvailableRetries());
+        int granted = 0;
+        while (budget.tryAcquireRetry()) {
+            granted++;
+        }
+        assertEquals(10, granted);
+        assertEquals(0, budget.getAvailableRetries());
+    }
+
+    @Test
+    void savedRetriesAreCapped() {
+        RetryBudget budget = new RetryBudget(1.0, 0);
+        for (int i = 0; i < 1000; i++) {
+            budget.onFirstAttempt();
+        }
+
+        assertEquals(100, budget.getAvailableRetries());
+    }
+
+    @Test
+    void minimumAllowanceKeepsRetriesPossibleWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        assertFalse(new RetryBudget(0.1, 0).tryAcquireRetry());
+    }
+
+    @Test
+    void rejectsNegativeRatio() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 0));
+    }
+}
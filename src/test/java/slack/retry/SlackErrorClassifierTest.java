@@ -0,0 +1,49 @@
+package slack.retry;
+
+import org.junit.jupiter.api.Test;
+import slack.exception.SlackDeadlineExceededException;
+import slack.exception.SlackException;
+import slack.exception.SlackRateLimitedException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackErrorClassifierTest {
+
+    @Test
+    void permanentSlackErrorsAreNotRetriedWhateverTheStatus() {
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackException("error", "channel_not_found", 200)));
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackException("error", "invalid_auth", 500)));
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackException("error", "no_active_hooks", 410)));
+        assertTrue(SlackErrorClassifier.isPermanentError("msg_too_long"));
+        assertFalse(SlackErrorClassifier.isPermanentError("internal_error"));
+        assertFalse(SlackErrorClassifier.isPermanentError(null));
+    }
+
+    @Test
+    void transientErrorsServerErrorsAndIoFailuresAreRetried() {
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("error", "internal_error", 200)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("error", "ratelimited", 400)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("HTTP error", null, 503)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("error", "something_new", 200)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("I/O", new IOException("reset"))));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackRateLimitedException("limited", "ratelimited", 429, 1000)));
+    }
+
+    @Test
+    void clientErrorsOtherThanTimeoutAndTooManyRequestsAreNotRetried() {
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackException("HTTP error", null, 400)));
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackException("HTTP error", null, 404)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("HTTP error", null, 408)));
+        assertTrue(SlackErrorClassifier.isRetryable(new SlackException("HTTP error", null, 429)));
+    }
+
+    @Test
+    void missedDeadlineIsFinal() {
+        SlackException timeout = new SlackException("I/O", new IOException("read timed out"));
+
+        assertFalse(SlackErrorClassifier.isRetryable(new SlackDeadlineExceededException("deadline", timeout)));
+    }
+}
@@ -0,0 +1,175 @@
+package slack.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import slack.message.Severity;
+import slack.model.SlackPayload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageSpoolTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysOnlyUnacknowledgedMessagesInOrder() throws IOException {
+        MessageSpool spool = MessageSpool.open(directory, 64 * 1024, 8);
+        SpoolRecord first = spool.append("C1", Severity.HIGH, 0, payload("first"));
+        spool.append("C2", Severity.LOW, 1234L, payload("second"));
+        spool.append("C1", Severity.CRITICAL, 0, payload("third"));
+        first.ack();
+        first.ack();
+
+        List<SpooledMessage> recovered = MessageSpool.open(directory, 64 * 1024, 8).recover();
+
+        assertEquals(2, recovered.size());
+        assertEquals("C2", recovered.get(0).getChannelId());
+        assertEquals(Severity.LOW, recovered.get(0).getSeverity());
+        assertEquals(1234L, recovered.get(0).getExpiresAt());
+        assertEquals("second", recovered.get(0).getPayload().toString());
+        assertEquals("third", recovered.get(1).getPayload().toString());
+        assertEquals(Severity.CRITICAL, recovered.get(1).getSeverity());
+    }
+
+    @Test
+    void recoveredMessagesAreHandedOutOnceAndStayUntilAcknowledged() throws IOException {
+        MessageSpool.open(directory, 64 * 1024, 8).append("C1", Severity.MEDIUM, 0, payload("pending"));
+
+        MessageSpool reopened = MessageSpool.open(directory, 64 * 1024, 8);
+        List<SpooledMessage> recovered = reopened.recover();
+        assertEquals(1, recovered.size());
+        assertTrue(reopened.recover().isEmpty());
+
+        assertEquals(1, MessageSpool.open(directory, 64 * 1024, 8).recover().size());
+        recovered.get(0).getRecord().ack();
+        assertTrue(MessageSpool.open(directory, 64 * 1024, 8).recover().isEmpty());
+    }
+
+    @Test
+    void rollsFullSegmentsAndDeletesThemOnceAcknowledged() throws IOException {
+        MessageSpool spool = MessageSpool.open(directory, 4096, 8);
+        List<SpoolRecord> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            records.add(spool.append("C1", Severity.MEDIUM, 0, payload("x".repeat(200))));
+        }
+        assertTrue(spool.getSegmentCount() > 1);
+        assertEquals(40, spool.getLiveRecords());
+
+        records.forEach(SpoolRecord::ack);
+
+        assertEquals(1, spool.getSegmentCount());
+        assertEquals(0, spool.getLiveRecords());
+        assertTrue(MessageSpool.open(directory, 4096, 8).recover().isEmpty());
+    }
+
+    @Test
+    void compactionKeepsStragglersRecoverable() throws IOException {
+        // 200 records of this size need far more than four segments unless sparse ones are compacted
+        MessageSpool spool = MessageSpool.open(directory, 4096, 4);
+        for (int i = 0; i < 200; i++) {
+            SpoolRecord record = spool.append("C1", Severity.MEDIUM, 0, payload("m" + i + "-" + "x".repeat(200)));
+            assertNotNull(record, "append " + i);
+            if (i % 20 != 0) {
+                record.ack();
+            }
+        }
+
+        Set<String> recovered = new HashSet<>();
+        for (SpooledMessage message : MessageSpool.open(directory, 4096, 4).recover()) {
+            String text = message.getPayload().toString();
+            recovered.add(text.substring(0, text.indexOf('-')));
+        }
+
+        assertEquals(Set.of("m0", "m20", "m40", "m60", "m80", "m100", "m120", "m140", "m160", "m180"), recovered);
+    }
+
+    @Test
+    void concurrentAppendsNeverOverlap() throws Exception {
+        MessageSpool spool = MessageSpool.open(directory, 64 * 1024, 64);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            String writer = "w" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    spool.append("C1", Severity.MEDIUM, 0, payload(writer + "-" + i));
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Set<String> recovered = new HashSet<>();
+        for (SpooledMessage message : MessageSpool.open(directory, 64 * 1024, 64).recover()) {
+            recovered.add(message.getPayload().toString());
+        }
+
+        assertEquals(4000, recovered.size());
+        assertTrue(recovered.contains("w3-999"));
+    }
+
+    @Test
+    void acknowledgementsRacingAppendsNeverLoseALiveRecord() throws Exception {
+        // Small segments roll, retire and compact constantly while every thread acks all but every tenth record
+        MessageSpool spool = MessageSpool.open(directory, 4096, 1024);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            String writer = "w" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    SpoolRecord record = spool.append("C1", Severity.MEDIUM, 0, payload(writer + "-" + i));
+                    if (i % 10 != 0) {
+                        record.ack();
+                    }
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        Set<String> recovered = new HashSet<>();
+        for (SpooledMessage message : MessageSpool.open(directory, 4096, 1024).recover()) {
+            recovered.add(message.getPayload().toString());
+        }
+
+        assertEquals(2000, spool.getLiveRecords());
+        assertEquals(2000, recovered.size());
+        assertTrue(recovered.contains("w3-4990"));
+    }
+
+    @Test
+    void refusesMessagesLargerThanASegmentOrBeyondTheSegmentLimit() throws IOException {
+        MessageSpool spool = MessageSpool.open(directory, 4096, 2);
+
+        assertNull(spool.append("C1", Severity.MEDIUM, 0, payload("x".repeat(5000))));
+        SpoolRecord last = null;
+        for (int i = 0; i < 100; i++) {
+            SpoolRecord record = spool.append("C1", Severity.MEDIUM, 0, payload("x".repeat(500)));
+            if (record == null) {
+                break;
+            }
+            last = record;
+        }
+        assertNotNull(last);
+        assertEquals(2, spool.getSegmentCount());
+        assertNull(spool.append("C1", Severity.MEDIUM, 0, payload("x".repeat(500))));
+    }
+
+    private static SlackPayload payload(String text) {
+        return SlackPayload.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
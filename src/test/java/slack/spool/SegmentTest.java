@@ -0,0 +1,60 @@
+package slack.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SegmentTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedReservationsLeaveTheRemainingRoomUsable() throws IOException {
+        Segment segment = Segment.create(directory.resolve("spool-1.seg"), 1, 4096);
+
+        assertEquals(0, segment.reserve(100));
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(-1, segment.reserve(1 << 20));
+        }
+        assertEquals(Segment.recordLength(100), segment.reserve(100));
+    }
+
+    @Test
+    void lastRecordMayFillTheSegmentExactly() throws IOException {
+        Segment segment = Segment.create(directory.resolve("spool-1.seg"), 1, 4096);
+        int recordBytes = Segment.recordLength(900);
+        int records = 0;
+        while (segment.reserve(900) >= 0) {
+            records++;
+        }
+        int tailBody = 4096 - records * recordBytes - Segment.HEADER_BYTES;
+
+        assertEquals(4096 / recordBytes, records);
+        assertEquals(-1, segment.reserve(tailBody + 1));
+        assertEquals(records * recordBytes, segment.reserve(tailBody));
+        assertEquals(-1, segment.reserve(1));
+    }
+
+    @Test
+    void tornAppendDoesNotHideTheRecordsAfterIt() throws IOException {
+        Path file = directory.resolve("spool-1.seg");
+        Segment segment = Segment.create(file, 1, 4096);
+        int torn = segment.reserve(100);
+        byte[] body = "after the torn record".getBytes(StandardCharsets.UTF_8);
+        int complete = segment.reserve(body.length);
+        segment.write(complete, (byte) 0, 0, body);
+
+        List<Integer> visited = new ArrayList<>();
+        Segment.open(file, 1).scan(visited::add);
+
+        assertEquals(0, torn);
+        assertEquals(List.of(complete), visited);
+    }
+}
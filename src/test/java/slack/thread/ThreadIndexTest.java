@@ -0,0 +1,80 @@
+package slack.thread;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ThreadIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsTheThreadByChannelAndKey() {
+        ThreadIndex index = ThreadIndex.inMemory(1024, 60_000);
+
+        index.record("C1", "deploy-42", "1712345678.000100");
+
+        assertEquals("1712345678.000100", index.lookup("C1", "deploy-42"));
+        assertNull(index.lookup("C2", "deploy-42"));
+        assertNull(index.lookup("C1", "deploy-43"));
+    }
+
+    @Test
+    void laterRecordReplacesTheThread() {
+        ThreadIndex index = ThreadIndex.inMemory(1024, 60_000);
+
+        index.record("C1", "deploy-42", "1712345678.000100");
+        index.record("C1", "deploy-42", "1712345999.999999");
+
+        assertEquals("1712345999.999999", index.lookup("C1", "deploy-42"));
+    }
+
+    @Test
+    void ignoresTimestampsNotInSlackForm() {
+        ThreadIndex index = ThreadIndex.inMemory(1024, 60_000);
+
+        index.record("C1", "a", "1712345678");
+        index.record("C1", "b", "1712345678.12");
+        index.record("C1", "c", "abc.123456");
+        index.record("C1", "d", null);
+
+        assertNull(index.lookup("C1", "a"));
+        assertNull(index.lookup("C1", "b"));
+        assertNull(index.lookup("C1", "c"));
+        assertNull(index.lookup("C1", "d"));
+    }
+
+    @Test
+    void threadExpiresAfterItsTimeToLiveUnlessUsed() throws InterruptedException {
+        ThreadIndex index = ThreadIndex.inMemory(1024, 100);
+        index.record("C1", "used", "1712345678.000001");
+        index.record("C1", "idle", "1712345678.000002");
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(40);
+            assertEquals("1712345678.000001", index.lookup("C1", "used"));
+        }
+
+        assertNull(index.lookup("C1", "idle"));
+    }
+
+    @Test
+    void fileBackedIndexSurvivesReopening() throws IOException {
+        Path file = directory.resolve("threads.idx");
+        ThreadIndex.open(file, 1024, 60_000).record("C1", "deploy-42", "1712345678.000100");
+
+        assertEquals("1712345678.000100", ThreadIndex.open(file, 1024, 60_000).lookup("C1", "deploy-42"));
+        assertNull(ThreadIndex.open(file, 4096, 60_000).lookup("C1", "deploy-42"));
+    }
+
+    @Test
+    void packsTimestampsWithoutLosingLeadingZeroMicros() {
+        assertEquals("1712345678.000001", ThreadIndex.unpackTs(ThreadIndex.packTs("1712345678.000001")));
+        assertEquals(-1, ThreadIndex.packTs("1712345678.1234567"));
+    }
+}
@@ -0,0 +1,55 @@
+package slack.transport;
+
+import org.junit.jupiter.api.Test;
+import slack.model.SlackResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static slack.transport.RecordingTransportTest.request;
+
+class LatencyStubTransportTest {
+
+    @Test
+    void answersAfterTheDelayWithoutBlockingTheCaller() throws Exception {
+        LatencyStubTransport transport = new LatencyStubTransport(100);
+
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> response = transport.send(request("C1"));
+        long returnedAfterMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertFalse(response.isDone());
+        assertTrue(returnedAfterMs < 100);
+        assertEquals("C1", response.get(5, TimeUnit.SECONDS).getResponse().getChannel());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+    }
+
+    @Test
+    void delaysTheDelegatesAnswersAndFailures() throws Exception {
+        RecordingTransport delegate = new RecordingTransport();
+        LatencyStubTransport transport = new LatencyStubTransport(delegate, 0, 20);
+
+        delegate.setResponder(request -> new TransportResponse(200, new SlackResponse(false, "not_in_channel")));
+        assertEquals("not_in_channel", transport.send(request("C1")).get(5, TimeUnit.SECONDS).getResponse().getError());
+
+        delegate.setResponder(request -> {
+            throw new IllegalStateException("timeout");
+        });
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> transport.send(request("C1")).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(2, delegate.getRequestCount());
+    }
+
+    @Test
+    void rejectsInvalidLatencyBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyStubTransport(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyStubTransport(50, 10));
+    }
+}
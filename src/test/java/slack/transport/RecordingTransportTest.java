@@ -0,0 +1,87 @@
+package slack.transport;
+
+import org.junit.jupiter.api.Test;
+import slack.model.SlackPayload;
+import slack.model.SlackResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingTransportTest {
+    private static final URI POST_MESSAGE = URI.create("https://slack.com/api/chat.postMessage");
+
+    @Test
+    void recordsRequestsInOrderAndAnswersWithTheirChannel() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+
+        TransportResponse first = transport.send(request("C1")).get();
+        TransportResponse second = transport.send(request("C2")).get();
+
+        assertEquals(200, first.getStatusCode());
+        assertTrue(first.getResponse().isOk());
+        assertEquals("C1", first.getResponse().getChannel());
+        assertEquals("C2", second.getResponse().getChannel());
+        assertNotEquals(first.getResponse().getTs(), second.getResponse().getTs());
+        assertEquals(2, transport.getRequestCount());
+        assertEquals("C1", transport.getRequests().get(0).getChannelId());
+        assertEquals("C2", transport.getRequests().get(1).getChannelId());
+    }
+
+    @Test
+    void countingOnlyTransportKeepsNoRequests() throws Exception {
+        RecordingTransport transport = new RecordingTransport(false);
+
+        transport.send(request("C1")).get();
+
+        assertEquals(1, transport.getRequestCount());
+        assertTrue(transport.getRequests().isEmpty());
+    }
+
+    @Test
+    void responderSimulatesSlackErrorsAndIoFailures() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        transport.setResponder(request -> new TransportResponse(200, new SlackResponse(false, "channel_not_found")));
+
+        assertEquals("channel_not_found", transport.send(request("C1")).get().getResponse().getError());
+
+        transport.setResponder(request -> {
+            throw new IllegalStateException("connection reset");
+        });
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> transport.send(request("C1")).get());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(2, transport.getRequestCount());
+    }
+
+    @Test
+    void clearForgetsRequestsAndCount() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        transport.send(request("C1")).get();
+
+        transport.clear();
+
+        assertEquals(0, transport.getRequestCount());
+        assertTrue(transport.getRequests().isEmpty());
+    }
+
+    @Test
+    void responseHeadersAreLookedUpIgnoringCase() {
+        TransportResponse response = new TransportResponse(429, null,
+                Map.of("Retry-After", List.of("30")));
+
+        assertEquals("30", response.getHeader("retry-after"));
+        assertEquals(-1, response.getFirstByteNanos());
+    }
+
+    static TransportRequest request(String channelId) {
+        return new TransportRequest(POST_MESSAGE, "xoxb-test", channelId,
+                SlackPayload.wrap("{\"text\":\"hi\"}".getBytes()), 1000);
+    }
+}
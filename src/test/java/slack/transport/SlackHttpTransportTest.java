@@ -0,0 +1,108 @@
+package slack.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import slack.model.SlackPayload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackHttpTransportTest {
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private URI uri;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/chat.postMessage", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"ok\":true,\"channel\":\"C1\",\"ts\":\"1712345678.000100\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/chat.postMessage");
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void parsesTheResponseAndMeasuresTheExchange() throws Exception {
+        release.countDown();
+        SlackHttpTransport transport = SlackHttpTransport.builder().http2Enabled(false).build();
+
+        TransportResponse response = transport.send(request("hello", 5000)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("1712345678.000100", response.getResponse().getTs());
+        assertTrue(response.getFirstByteNanos() >= 0);
+        assertEquals(List.of("{\"text\":\"hello\"}"), received);
+    }
+
+    @Test
+    void requestCancelledWhileWaitingForAConnectionIsNeverSent() throws Exception {
+        SlackHttpTransport transport = SlackHttpTransport.builder().maxConnections(1).http2Enabled(false).build();
+        CompletableFuture<TransportResponse> first = transport.send(request("first", 5000));
+        CompletableFuture<TransportResponse> second = transport.send(request("second", 5000));
+        assertEquals(1, transport.getWaitingRequests());
+
+        second.cancel(true);
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        transport.send(request("third", 5000)).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("{\"text\":\"first\"}", "{\"text\":\"third\"}"), received);
+        assertEquals(0, transport.getActiveConnections());
+    }
+
+    @Test
+    void waitForAConnectionCountsAgainstTheRequestTimeout() throws Exception {
+        SlackHttpTransport transport = SlackHttpTransport.builder().maxConnections(1).http2Enabled(false).build();
+        CompletableFuture<TransportResponse> first = transport.send(request("first", 5000));
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> transport.send(request("second", 200)).get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(HttpTimeoutException.class, failure.getCause());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("{\"text\":\"first\"}"), received);
+    }
+
+    private TransportRequest request(String text, int timeoutMs) {
+        byte[] body = ("{\"text\":\"" + text + "\"}").getBytes(StandardCharsets.UTF_8);
+        return new TransportRequest(uri, "xoxb-test", "C1", SlackPayload.wrap(body), timeoutMs);
+    }
+}
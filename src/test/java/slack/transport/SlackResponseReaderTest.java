@@ -0,0 +1,66 @@
+package slack.transport;
+
+import org.junit.jupiter.api.Test;
+import slack.model.SlackResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlackResponseReaderTest {
+
+    @Test
+    void readsTheFieldsItNeedsAndSkipsTheMessageEcho() {
+        SlackResponse response = read("{\"ok\":true,\"channel\":\"C1\",\"ts\":\"1712345678.123456\","
+                + "\"message\":{\"text\":\"hi\",\"blocks\":[{\"type\":\"section\",\"ts\":\"wrong\"}]},"
+                + "\"warning\":\"missing_charset\",\"response_metadata\":{\"warnings\":[\"missing_charset\"]}}");
+
+        assertTrue(response.isOk());
+        assertEquals("C1", response.getChannel());
+        assertEquals("1712345678.123456", response.getTs());
+        assertEquals("missing_charset", response.getWarning());
+        assertNull(response.getMessage());
+    }
+
+    @Test
+    void readsAnError() {
+        SlackResponse response = read("\n{\"ok\":false,\"error\":\"channel_not_found\"}");
+
+        assertFalse(response.isOk());
+        assertEquals("channel_not_found", response.getError());
+    }
+
+    @Test
+    void ignoresFieldsOfUnexpectedType() {
+        SlackResponse response = read("{\"ok\":\"yes\",\"error\":42,\"ts\":null}");
+
+        assertFalse(response.isOk());
+        assertNull(response.getError());
+        assertNull(response.getTs());
+    }
+
+    @Test
+    void readsWebhookPlainTextAnswers() {
+        assertTrue(read("ok").isOk());
+        SlackResponse error = read("invalid_payload\n");
+        assertFalse(error.isOk());
+        assertEquals("invalid_payload", error.getError());
+    }
+
+    @Test
+    void returnsNullForBodiesThatAreNotSlackResponses() {
+        assertNull(SlackResponseReader.read(null));
+        assertNull(read(""));
+        assertNull(read("<html><body>502 Bad Gateway</body></html>"));
+        assertNull(read("Service Unavailable"));
+        assertNull(read("[1,2]"));
+        assertNull(read("{\"ok\":true"));
+    }
+
+    private static SlackResponse read(String body) {
+        return SlackResponseReader.read(body.getBytes(StandardCharsets.UTF_8));
+    }
+}